@@ -0,0 +1,75 @@
+package com.documents.lostdocumentsapp.benchmark;
+
+import com.documents.lostdocumentsapp.dto.CreateAnnonceRequest;
+import com.documents.lostdocumentsapp.model.Annonce;
+import com.documents.lostdocumentsapp.model.DocumentType;
+import com.documents.lostdocumentsapp.service.AnnonceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Création d'une annonce par {@link AnnonceService#createAnnonceFromRequest}
+ * sur H2 : document et annonce insérés, index, statistiques, rapprochement et
+ * email de confirmation compris. Chaque appel porte un numéro de document
+ * distinct pour ne pas faire grossir un même bloc de rapprochement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnnonceCreateBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Creation {
+
+        AnnonceService annonceService;
+        Long userId;
+        final AtomicLong sequence = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp(ApplicationState application) {
+            annonceService = application.bean(AnnonceService.class);
+            userId = application.user().getId();
+        }
+
+        CreateAnnonceRequest nextRequest() {
+            long number = sequence.incrementAndGet();
+            CreateAnnonceRequest.DocumentInfo document = new CreateAnnonceRequest.DocumentInfo();
+            document.setDocumentType(DocumentType.CARTE_IDENTITE);
+            document.setDocumentNumber("BENCH-" + number);
+            document.setHolderName("Sow");
+            document.setHolderFirstName("Aminata");
+
+            CreateAnnonceRequest request = new CreateAnnonceRequest();
+            request.setTitle("Carte d'identité perdue n°" + number);
+            request.setDescription("Perdue dans un taxi entre Plateau et Médina.");
+            request.setLossDate(LocalDate.of(2024, 6, 1));
+            request.setLossLocation("Avenue Blaise Diagne");
+            request.setLossCity("Dakar");
+            request.setLossPostalCode("10200");
+            request.setRewardAmount(BigDecimal.valueOf(5000));
+            request.setDocument(document);
+            return request;
+        }
+    }
+
+    @Benchmark
+    public Annonce createAnnonceFromRequest(Creation creation) {
+        return creation.annonceService.createAnnonceFromRequest(creation.userId, creation.nextRequest());
+    }
+}
@@ -0,0 +1,49 @@
+package com.documents.lostdocumentsapp.benchmark;
+
+import com.documents.lostdocumentsapp.LostDocumentsAppApplication;
+import com.documents.lostdocumentsapp.model.User;
+import com.documents.lostdocumentsapp.repository.UserRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Contexte Spring complet de l'application, démarré une fois par fork avec le
+ * profil {@code benchmark} (H2 en mémoire, sans serveur HTTP). Les benchmarks
+ * utilisent les beans tels qu'ils sont configurés en production.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    // Compte créé au démarrage par DataInitializationService
+    static final String USER_EMAIL = "admin@lostdocuments.com";
+
+    private ConfigurableApplicationContext context;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(LostDocumentsAppApplication.class)
+                .profiles("benchmark")
+                .run();
+        user = bean(UserRepository.class).findByEmail(USER_EMAIL)
+                .orElseThrow(() -> new IllegalStateException("Utilisateur de benchmark absent : " + USER_EMAIL));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public User user() {
+        return user;
+    }
+}
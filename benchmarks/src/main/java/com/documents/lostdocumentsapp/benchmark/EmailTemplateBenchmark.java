@@ -0,0 +1,79 @@
+package com.documents.lostdocumentsapp.benchmark;
+
+import com.documents.lostdocumentsapp.model.Annonce;
+import com.documents.lostdocumentsapp.model.DocumentType;
+import com.documents.lostdocumentsapp.model.User;
+import com.documents.lostdocumentsapp.service.EmailService;
+import com.documents.lostdocumentsapp.service.MailTemplates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendu des emails de notification : gabarit seul, puis notification complète
+ * (modèle, rendu et dépôt dans l'outbox H2).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Mail {
+
+        MailTemplates mailTemplates;
+        EmailService emailService;
+        User user;
+        Annonce announcement;
+        Map<String, Object> model;
+
+        @Setup(Level.Trial)
+        public void setUp(ApplicationState application) {
+            mailTemplates = application.bean(MailTemplates.class);
+            emailService = application.bean(EmailService.class);
+            user = application.user();
+
+            announcement = new Annonce();
+            announcement.setTitle("Passeport perdu à l'aéroport");
+            announcement.setDocumentType(DocumentType.PASSEPORT);
+            announcement.setHolderName("Diop");
+            announcement.setLossDate(LocalDate.of(2024, 5, 2));
+            announcement.setLossLocation("Aéroport Blaise Diagne");
+
+            // Même modèle que EmailService pour "annonce-created"
+            model = new HashMap<>();
+            model.put("firstName", user.getFirstName());
+            model.put("lastName", user.getLastName());
+            model.put("title", announcement.getTitle());
+            model.put("documentType", announcement.getDocumentType().getDisplayName());
+            model.put("holderName", announcement.getHolderName());
+            model.put("lossDate", announcement.getLossDate());
+            model.put("lossLocation", announcement.getLossLocation());
+        }
+    }
+
+    @Benchmark
+    public String renderAnnonceCreated(Mail mail) {
+        return mail.mailTemplates.render("annonce-created", mail.model);
+    }
+
+    @Benchmark
+    public void sendAnnonceCreatedNotification(Mail mail) {
+        mail.emailService.sendAnnonceCreatedNotification(mail.user, mail.announcement);
+    }
+}
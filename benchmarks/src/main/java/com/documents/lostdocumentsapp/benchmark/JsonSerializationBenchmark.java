@@ -0,0 +1,95 @@
+package com.documents.lostdocumentsapp.benchmark;
+
+import com.documents.lostdocumentsapp.model.Annonce;
+import com.documents.lostdocumentsapp.model.AnnouncementStatus;
+import com.documents.lostdocumentsapp.model.DocumentType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation des réponses d'annonces par l'{@link ObjectMapper} configuré
+ * par Spring Boot : une annonce seule et une page d'annonces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Payloads {
+
+        @Param({"20", "200"})
+        int pageSize;
+
+        ObjectMapper objectMapper;
+        Annonce announcement;
+        Page<Annonce> page;
+
+        @Setup(Level.Trial)
+        public void setUp(ApplicationState application) {
+            objectMapper = application.bean(ObjectMapper.class);
+            announcement = announcement(1L);
+            List<Annonce> content = new ArrayList<>(pageSize);
+            for (long id = 1; id <= pageSize; id++) {
+                content.add(announcement(id));
+            }
+            page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+        }
+
+        private static Annonce announcement(long id) {
+            Annonce announcement = new Annonce();
+            announcement.setId(id);
+            announcement.setTitle("Carte d'identité perdue au marché Sandaga");
+            announcement.setDescription("Perdue dans l'après-midi près de l'entrée principale, pochette bleue.");
+            announcement.setDocumentType(DocumentType.CARTE_IDENTITE);
+            announcement.setDocumentNumber("1 751 1990 01234 " + id);
+            announcement.setHolderName("Ndiaye");
+            announcement.setHolderFirstName("Mamadou");
+            announcement.setLossDate(LocalDate.of(2024, 3, 12));
+            announcement.setLossLocation("Marché Sandaga");
+            announcement.setLossCity("Dakar");
+            announcement.setLossPostalCode("10200");
+            announcement.setRewardAmount(10_000.0);
+            announcement.setStatus(AnnouncementStatus.ACTIVE);
+            announcement.setContactPreference("PHONE");
+            announcement.setViews(42);
+            announcement.setVersion(0L);
+            announcement.setCreatedAt(LocalDateTime.of(2024, 3, 12, 18, 30));
+            announcement.setUpdatedAt(LocalDateTime.of(2024, 3, 12, 18, 30));
+            return announcement;
+        }
+    }
+
+    @Benchmark
+    public byte[] announcement(Payloads payloads) throws JsonProcessingException {
+        return payloads.objectMapper.writeValueAsBytes(payloads.announcement);
+    }
+
+    @Benchmark
+    public byte[] announcementPage(Payloads payloads) throws JsonProcessingException {
+        return payloads.objectMapper.writeValueAsBytes(payloads.page);
+    }
+}
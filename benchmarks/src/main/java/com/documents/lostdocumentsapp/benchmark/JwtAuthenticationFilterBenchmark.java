@@ -0,0 +1,76 @@
+package com.documents.lostdocumentsapp.benchmark;
+
+import com.documents.lostdocumentsapp.security.JwtAuthenticationCache;
+import com.documents.lostdocumentsapp.security.JwtAuthenticationFilter;
+import com.documents.lostdocumentsapp.util.JwtUtil;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traversée complète de {@link JwtAuthenticationFilter} par une requête
+ * portant un en-tête {@code Authorization: Bearer}, avec le cache
+ * d'authentification chaud ou vidé avant chaque appel (analyse du token et
+ * chargement de l'utilisateur en base).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Filter {
+
+        JwtAuthenticationFilter filter;
+        JwtAuthenticationCache cache;
+        String authorization;
+
+        @Setup(Level.Trial)
+        public void setUp(ApplicationState application) {
+            filter = application.bean(JwtAuthenticationFilter.class);
+            cache = application.bean(JwtAuthenticationCache.class);
+            authorization = "Bearer " + application.bean(JwtUtil.class).generateToken(application.user());
+        }
+    }
+
+    @Benchmark
+    public Authentication cachedToken(Filter state) throws ServletException, IOException {
+        return authenticate(state);
+    }
+
+    @Benchmark
+    public Authentication uncachedToken(Filter state) throws ServletException, IOException {
+        state.cache.invalidateAll();
+        return authenticate(state);
+    }
+
+    private static Authentication authenticate(Filter state) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/annonces/my-annonces");
+        request.addHeader("Authorization", state.authorization);
+        try {
+            state.filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.documents.lostdocumentsapp.benchmark;
+
+import com.documents.lostdocumentsapp.model.User;
+import com.documents.lostdocumentsapp.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Émission (connexion, rafraîchissement) et vérification des tokens JWT.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Tokens {
+
+        JwtUtil jwtUtil;
+        User user;
+        String token;
+
+        @Setup(Level.Trial)
+        public void setUp(ApplicationState application) {
+            jwtUtil = application.bean(JwtUtil.class);
+            user = application.user();
+            token = jwtUtil.generateToken(user);
+        }
+    }
+
+    @Benchmark
+    public String generateToken(Tokens tokens) {
+        return tokens.jwtUtil.generateToken(tokens.user);
+    }
+
+    @Benchmark
+    public Claims parseClaims(Tokens tokens) {
+        return tokens.jwtUtil.parseClaims(tokens.token);
+    }
+
+    @Benchmark
+    public Boolean validateToken(Tokens tokens) {
+        return tokens.jwtUtil.validateToken(tokens.token);
+    }
+}
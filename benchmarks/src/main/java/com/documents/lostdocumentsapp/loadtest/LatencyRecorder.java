@@ -0,0 +1,71 @@
+package com.documents.lostdocumentsapp.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latences d'un utilisateur virtuel, par opération. Chaque utilisateur a son
+ * propre enregistreur (aucune synchronisation pendant le tir) ; ils sont
+ * fusionnés à la fin par {@link #merge}.
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Samples> operations = new TreeMap<>();
+
+    void record(String operation, long micros) {
+        operations.computeIfAbsent(operation, name -> new Samples()).add(micros);
+    }
+
+    void error(String operation) {
+        operations.computeIfAbsent(operation, name -> new Samples()).errors++;
+    }
+
+    void merge(LatencyRecorder other) {
+        other.operations.forEach((name, samples) -> operations.computeIfAbsent(name, n -> new Samples()).addAll(samples));
+    }
+
+    Map<String, Samples> operations() {
+        return operations;
+    }
+
+    static final class Samples {
+
+        private long[] values = new long[1024];
+        private int size;
+        long errors;
+
+        void add(long micros) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = micros;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+            errors += other.errors;
+        }
+
+        int count() {
+            return size;
+        }
+
+        // Valeurs triées, pour le calcul des centiles
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+        }
+    }
+}
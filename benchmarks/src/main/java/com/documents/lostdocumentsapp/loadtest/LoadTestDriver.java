@@ -0,0 +1,151 @@
+package com.documents.lostdocumentsapp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pilote de charge HTTP en boucle fermée contre une application démarrée avec
+ * le profil {@code loadtest} : {@code --concurrency} utilisateurs virtuels
+ * (un thread virtuel chacun, sans temps de réflexion) jouent un
+ * {@link Scenario} pendant {@code --warmup} puis {@code --duration} secondes.
+ * Seule la seconde période est mesurée.
+ *
+ * <p>
+ * Options ({@code --nom=valeur}) : {@code base-url}, {@code scenario}
+ * (feed, search, messaging, login, mixed), {@code concurrency},
+ * {@code duration}, {@code warmup}, {@code users} (comptes semés,
+ * {@code app.seed.users}), {@code password} ({@code app.seed.password}),
+ * {@code seed} et {@code out} (résultat JSON, par défaut
+ * {@code target/loadtest-<scénario>.json}).
+ */
+public final class LoadTestDriver {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "base-url", "http://localhost:8080",
+            "scenario", "mixed",
+            "concurrency", "64",
+            "duration", "60",
+            "warmup", "10",
+            "users", "100000",
+            "password", "loadtest123",
+            "seed", "42",
+            "out", "");
+
+    private LoadTestDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Scenario scenario = Scenario.valueOf(options.get("scenario").toUpperCase(Locale.ROOT).replace('-', '_'));
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        int warmupSeconds = Integer.parseInt(options.get("warmup"));
+        int durationSeconds = Integer.parseInt(options.get("duration"));
+        long seed = Long.parseLong(options.get("seed"));
+
+        System.out.printf("Scénario %s : %d utilisateurs virtuels, %d s de chauffe, %d s de mesure contre %s%n",
+                scenario, concurrency, warmupSeconds, durationSeconds, options.get("base-url"));
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        AtomicBoolean measuring = new AtomicBoolean(false);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<VirtualUser> users = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .executor(executor)
+                        .build()) {
+            List<Future<?>> loops = new ArrayList<>(concurrency);
+            for (int index = 0; index < concurrency; index++) {
+                VirtualUser user = new VirtualUser(client, objectMapper, options.get("base-url"),
+                        Integer.parseInt(options.get("users")), options.get("password"), seed + index, measuring::get);
+                users.add(user);
+                loops.add(executor.submit(() -> {
+                    while (running.get()) {
+                        scenario.iterate(user);
+                    }
+                }));
+            }
+
+            Thread.sleep(warmupSeconds * 1000L);
+            measuring.set(true);
+            long start = System.nanoTime();
+            Thread.sleep(durationSeconds * 1000L);
+            measuring.set(false);
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+            running.set(false);
+            for (Future<?> loop : loops) {
+                loop.get();
+            }
+
+            LatencyRecorder total = new LatencyRecorder();
+            users.forEach(user -> total.merge(user.recorder()));
+            Path out = Path.of(options.get("out").isEmpty()
+                    ? "target/loadtest-" + scenario.name().toLowerCase(Locale.ROOT) + ".json"
+                    : options.get("out"));
+            report(scenario, concurrency, elapsedSeconds, total, objectMapper, out);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !DEFAULTS.containsKey(arg.substring(2, separator))) {
+                throw new IllegalArgumentException("Option inconnue : " + arg + " (attendu --nom=valeur parmi "
+                        + DEFAULTS.keySet() + ")");
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static void report(Scenario scenario, int concurrency, double elapsedSeconds, LatencyRecorder total,
+            ObjectMapper objectMapper, Path out) throws IOException {
+        System.out.printf("%n%-24s %9s %7s %9s %9s %9s %9s %9s%n", "opération", "requêtes", "erreurs", "req/s",
+                "p50 ms", "p95 ms", "p99 ms", "max ms");
+        Map<String, Object> operations = new LinkedHashMap<>();
+        total.operations().forEach((name, samples) -> {
+            long[] sorted = samples.sorted();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("count", samples.count());
+            result.put("errors", samples.errors);
+            result.put("throughput", samples.count() / elapsedSeconds);
+            result.put("p50Ms", LatencyRecorder.Samples.percentile(sorted, 50) / 1000.0);
+            result.put("p95Ms", LatencyRecorder.Samples.percentile(sorted, 95) / 1000.0);
+            result.put("p99Ms", LatencyRecorder.Samples.percentile(sorted, 99) / 1000.0);
+            result.put("maxMs", sorted.length > 0 ? sorted[sorted.length - 1] / 1000.0 : 0.0);
+            operations.put(name, result);
+            System.out.printf(Locale.ROOT, "%-24s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", name, samples.count(),
+                    samples.errors, result.get("throughput"), result.get("p50Ms"), result.get("p95Ms"),
+                    result.get("p99Ms"), result.get("maxMs"));
+        });
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("scenario", scenario.name().toLowerCase(Locale.ROOT));
+        document.put("concurrency", concurrency);
+        document.put("durationSeconds", elapsedSeconds);
+        document.put("operations", operations);
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), document);
+        System.out.printf("%nRésultats écrits dans %s%n", out);
+    }
+}
@@ -0,0 +1,104 @@
+package com.documents.lostdocumentsapp.loadtest;
+
+import com.documents.lostdocumentsapp.util.SeedDistributions;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+
+/**
+ * Parcours joués par les utilisateurs virtuels. Une itération correspond à
+ * une visite : plusieurs requêtes enchaînées comme le ferait le client web.
+ */
+enum Scenario {
+
+    /** Fil d'actualité par curseur sur quelques pages, puis ouverture d'une annonce (réservée aux connectés). */
+    FEED {
+        @Override
+        void iterate(VirtualUser user) {
+            String cursor = null;
+            JsonNode page = null;
+            int pages = 1 + Math.min(user.random.nextInt(4), user.random.nextInt(4));
+            for (int index = 0; index < pages; index++) {
+                String path = "/api/announcements/feed?size=20"
+                        + (cursor != null ? "&after=" + VirtualUser.encode(cursor) : "");
+                page = user.get(index == 0 ? "feed.first-page" : "feed.next-page", path);
+                if (page == null || !page.path("hasNext").asBoolean()) {
+                    break;
+                }
+                cursor = page.path("nextCursor").asText();
+            }
+            JsonNode content = page != null ? page.path("content") : null;
+            if (content != null && content.size() > 0 && user.random.nextBoolean() && user.ensureLoggedIn()) {
+                long id = content.get(user.random.nextInt(content.size())).path("id").asLong();
+                user.get("announcement.detail", "/api/announcements/" + id);
+            }
+        }
+    },
+
+    /** Recherches multicritères, par ville, par titulaire et annonces urgentes. */
+    SEARCH {
+        @Override
+        void iterate(VirtualUser user) {
+            int draw = user.random.nextInt(100);
+            String city = VirtualUser.encode(SeedDistributions.city(user.random).name());
+            if (draw < 40) {
+                user.get("search.criteria", "/api/announcements/search?size=20&status=ACTIVE&city=" + city
+                        + "&type=" + SeedDistributions.documentType(user.random).name());
+            } else if (draw < 65) {
+                user.get("search.by-city", "/api/announcements/by-city/" + city + "?size=20");
+            } else if (draw < 90) {
+                user.get("search.by-holder", "/api/announcements/by-holder/"
+                        + VirtualUser.encode(SeedDistributions.lastName(user.random)) + "?size=20");
+            } else {
+                user.get("search.urgent", "/api/announcements/urgent?size=20");
+            }
+        }
+    },
+
+    /**
+     * Messagerie d'un utilisateur connecté : compteur de non lus, boîte de
+     * réception, historique d'un fil et réponse dans ce fil.
+     */
+    MESSAGING {
+        @Override
+        void iterate(VirtualUser user) {
+            if (!user.ensureLoggedIn()) {
+                return;
+            }
+            user.get("messages.unread-count", "/api/messages/unread-count");
+            JsonNode inbox = user.get("messages.inbox", "/api/messages/inbox?size=20");
+            JsonNode conversations = inbox != null ? inbox.path("content") : null;
+            if (conversations == null || conversations.size() == 0) {
+                return;
+            }
+            JsonNode conversation = conversations.get(user.random.nextInt(conversations.size()));
+            long partnerId = conversation.path("partnerId").asLong();
+            user.get("messages.history", "/api/messages/conversation/" + partnerId + "?limit=50");
+            user.post("messages.send", "/api/messages", Map.of(
+                    "receiverId", partnerId,
+                    "announcementId", conversation.path("announcementId").asLong(),
+                    "content", "Merci pour votre retour, je reviens vers vous rapidement.",
+                    "messageType", "RESPONSE"), true);
+        }
+    },
+
+    /** Connexions successives de comptes différents (coût BCrypt et émission du JWT). */
+    LOGIN {
+        @Override
+        void iterate(VirtualUser user) {
+            user.login("auth.login");
+        }
+    },
+
+    /** Trafic de production approché : navigation majoritaire, messagerie et connexions minoritaires. */
+    MIXED {
+        @Override
+        void iterate(VirtualUser user) {
+            int draw = user.random.nextInt(100);
+            Scenario scenario = draw < 50 ? FEED : draw < 75 ? SEARCH : draw < 90 ? MESSAGING : LOGIN;
+            scenario.iterate(user);
+        }
+    };
+
+    abstract void iterate(VirtualUser user);
+}
@@ -0,0 +1,129 @@
+package com.documents.lostdocumentsapp.loadtest;
+
+import com.documents.lostdocumentsapp.util.SeedDistributions;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Utilisateur simulé : un thread virtuel qui enchaîne les itérations d'un
+ * scénario avec des appels HTTP bloquants. Il se connecte avec un compte semé
+ * ({@code user<N>@loadtest.local}) au premier besoin d'un token.
+ */
+final class VirtualUser {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final int seededUsers;
+    private final String password;
+    private final BooleanSupplier measuring;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    final SplittableRandom random;
+    private String token;
+
+    VirtualUser(HttpClient client, ObjectMapper objectMapper, String baseUrl, int seededUsers, String password,
+            long seed, BooleanSupplier measuring) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.seededUsers = seededUsers;
+        this.password = password;
+        this.measuring = measuring;
+        this.random = new SplittableRandom(seed);
+    }
+
+    LatencyRecorder recorder() {
+        return recorder;
+    }
+
+    /**
+     * Connexion d'un compte semé tiré au hasard ; renvoie le token, ou
+     * {@code null} en cas d'échec.
+     */
+    String login(String operation) {
+        String email = SeedDistributions.email(1 + random.nextInt(seededUsers));
+        JsonNode response = post(operation, "/api/auth/login", Map.of("email", email, "password", password), false);
+        return response != null ? response.path("token").asText(null) : null;
+    }
+
+    boolean ensureLoggedIn() {
+        if (token == null) {
+            token = login("login");
+        }
+        return token != null;
+    }
+
+    JsonNode get(String operation, String path) {
+        return send(operation, request(path, true).GET().build());
+    }
+
+    JsonNode post(String operation, String path, Object body, boolean authenticated) {
+        try {
+            HttpRequest request = request(path, authenticated)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+            return send(operation, request);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private HttpRequest.Builder request(String path, boolean authenticated) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        if (authenticated && token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private JsonNode send(String operation, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            long micros = (System.nanoTime() - start) / 1000;
+            if (response.statusCode() >= 400) {
+                if (response.statusCode() == 401) {
+                    token = null;
+                }
+                error(operation);
+                return null;
+            }
+            if (measuring.getAsBoolean()) {
+                recorder.record(operation, micros);
+            }
+            return response.body().length == 0 ? null : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            error(operation);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void error(String operation) {
+        if (measuring.getAsBoolean()) {
+            recorder.error(operation);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+#!/bin/bash
+# Banc de charge sur une seule machine Linux, sans serveur de base de données :
+# compile l'application et le pilote, démarre l'application avec le profil loadtest
+# (H2 embarquée, données générées au premier démarrage), puis joue chaque scénario.
+# Résultats : benchmarks/target/loadtest-<scénario>.json, journal : target/loadtest-app.log
+#
+# Variables (valeurs par défaut entre parenthèses) :
+#   SCENARIOS (feed search messaging login mixed), CONCURRENCY (64), DURATION (60), WARMUP (10),
+#   SEED_USERS (100000), SEED_ANNONCES (300000), SEED_FOUND_DOCUMENTS (50000),
+#   SEED_CONVERSATIONS (150000), APP_JAVA_OPTS (-Xmx2g), PORT (8080),
+#   STARTUP_TIMEOUT (1800, secondes accordées à la génération des données et au chargement des index)
+# Changer les volumes impose de supprimer ./loadtest-data (la base existante est réutilisée).
+
+set -euo pipefail
+cd "$(dirname "$0")"
+
+SCENARIOS="${SCENARIOS:-feed search messaging login mixed}"
+CONCURRENCY="${CONCURRENCY:-64}"
+DURATION="${DURATION:-60}"
+WARMUP="${WARMUP:-10}"
+SEED_USERS="${SEED_USERS:-100000}"
+SEED_ANNONCES="${SEED_ANNONCES:-300000}"
+SEED_FOUND_DOCUMENTS="${SEED_FOUND_DOCUMENTS:-50000}"
+SEED_CONVERSATIONS="${SEED_CONVERSATIONS:-150000}"
+APP_JAVA_OPTS="${APP_JAVA_OPTS:--Xmx2g}"
+PORT="${PORT:-8080}"
+STARTUP_TIMEOUT="${STARTUP_TIMEOUT:-1800}"
+
+echo "🔨 Compilation de l'application et du pilote de charge..."
+mvn -B -q install -DskipTests
+mvn -B -q -f benchmarks/pom.xml package -DskipTests
+
+echo "🚀 Démarrage de l'application (profil loadtest)..."
+java $APP_JAVA_OPTS -jar target/lost-documents-app-0.0.1-SNAPSHOT.jar \
+    --spring.profiles.active=loadtest \
+    --server.port="$PORT" \
+    --app.seed.users="$SEED_USERS" \
+    --app.seed.annonces="$SEED_ANNONCES" \
+    --app.seed.found-documents="$SEED_FOUND_DOCUMENTS" \
+    --app.seed.conversations="$SEED_CONVERSATIONS" \
+    > target/loadtest-app.log 2>&1 &
+APP_PID=$!
+trap 'kill $APP_PID 2>/dev/null || true' EXIT
+
+DEADLINE=$((SECONDS + STARTUP_TIMEOUT))
+
+# Attend le statut UP sur un endpoint de santé, tant que l'application tourne et avant l'échéance
+wait_until_up() {
+    until curl -sf "http://localhost:$PORT$1" | grep -q '"status":"UP"'; do
+        if ! kill -0 $APP_PID 2>/dev/null; then
+            echo "❌ L'application s'est arrêtée, voir target/loadtest-app.log"
+            exit 1
+        fi
+        if [ $SECONDS -ge $DEADLINE ]; then
+            echo "❌ $1 n'est pas UP après ${STARTUP_TIMEOUT} s, voir target/loadtest-app.log"
+            exit 1
+        fi
+        sleep 5
+    done
+}
+
+# La génération des données (premier démarrage) précède la disponibilité du serveur,
+# puis les index en mémoire se chargent en arrière-plan
+wait_until_up /actuator/health
+wait_until_up /actuator/health/indexes
+echo "✅ Application prête"
+
+for SCENARIO in $SCENARIOS; do
+    echo ""
+    mvn -B -q -f benchmarks/pom.xml exec:exec@loadtest -Dloadtest.args="--scenario=$SCENARIO \
+--base-url=http://localhost:$PORT --concurrency=$CONCURRENCY --duration=$DURATION --warmup=$WARMUP \
+--users=$SEED_USERS"
+done
@@ -0,0 +1,58 @@
+package com.documents.lostdocumentsapp.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Échantillonnage des événements DEBUG et TRACE émis à chaque requête
+ * (authentification JWT, sécurité, SQL...) : seul un événement sur
+ * {@code rate} est conservé pour les loggers dont le nom commence par l'un des
+ * préfixes de {@code loggers}. Déclaré dans {@code logback-spring.xml}.
+ *
+ * <p>
+ * Le filtre s'exécute avant la création de l'événement : un message écarté ne
+ * coûte ni allocation ni formatage. Les tests {@code isDebugEnabled()} (sans
+ * message) ne sont pas échantillonnés, pour que le tirage n'ait lieu qu'une
+ * fois par événement.
+ */
+public class DebugSamplingTurboFilter extends TurboFilter {
+
+    private String[] prefixes = new String[0];
+    private int rate = 1;
+
+    public void setLoggers(String loggers) {
+        prefixes = Arrays.stream(loggers.split(","))
+                .map(String::trim)
+                .filter(prefix -> !prefix.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    public void setRate(int rate) {
+        this.rate = Math.max(1, rate);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+            Throwable t) {
+        if (rate == 1 || format == null || level == null || level.levelInt > Level.DEBUG_INT
+                || !isSampled(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(rate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean isSampled(String loggerName) {
+        for (String prefix : prefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
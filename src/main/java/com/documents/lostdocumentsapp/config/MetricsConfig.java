@@ -0,0 +1,43 @@
+package com.documents.lostdocumentsapp.config;
+
+import com.documents.lostdocumentsapp.security.JwtAuthenticationCache;
+import com.documents.lostdocumentsapp.service.MessagePushService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Mesures applicatives exportées par {@code /actuator/prometheus}.
+ *
+ * <p>
+ * Les services annotés {@code @Timed("service.calls")} sont chronométrés par
+ * méthode (étiquettes {@code class}, {@code method}, {@code exception}) ; les
+ * requêtes des repositories Spring Data le sont nativement par Spring Boot
+ * ({@code spring.data.repository.invocations}, étiquettes {@code repository}
+ * et {@code method}). Les histogrammes sont activés dans
+ * {@code application.properties}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder applicationGauges(MessagePushService messagePushService,
+            JwtAuthenticationCache jwtAuthenticationCache) {
+        return registry -> {
+            Gauge.builder("messages.stream.connections", messagePushService, MessagePushService::getConnectionCount)
+                    .description("Connexions SSE ouvertes")
+                    .register(registry);
+            Gauge.builder("jwt.cache.size", jwtAuthenticationCache, JwtAuthenticationCache::size)
+                    .description("Authentifications JWT en cache")
+                    .register(registry);
+        };
+    }
+}
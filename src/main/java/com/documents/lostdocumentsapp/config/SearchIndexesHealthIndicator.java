@@ -0,0 +1,50 @@
+package com.documents.lostdocumentsapp.config;
+
+import com.documents.lostdocumentsapp.service.AnnonceSearchIndex;
+import com.documents.lostdocumentsapp.service.DocumentMatchingService;
+import com.documents.lostdocumentsapp.service.DocumentSearchIndex;
+import com.documents.lostdocumentsapp.service.PersonneSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * État de chargement des index en mémoire ({@code /actuator/health/indexes}).
+ *
+ * <p>
+ * Tant qu'un index n'est pas prêt, l'indicateur vaut {@code UNKNOWN} : les
+ * recherches passent par SQL mais l'application répond, donc l'état global de
+ * {@code /actuator/health} reste {@code UP}. Le banc de charge attend
+ * {@code UP} sur ce groupe avant de mesurer.
+ */
+@Component
+public class SearchIndexesHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private AnnonceSearchIndex annonceSearchIndex;
+
+    @Autowired
+    private DocumentSearchIndex documentSearchIndex;
+
+    @Autowired
+    private PersonneSearchIndex personneSearchIndex;
+
+    @Autowired
+    private DocumentMatchingService documentMatchingService;
+
+    @Override
+    public Health health() {
+        boolean annonces = annonceSearchIndex.isReady();
+        boolean documents = documentSearchIndex.isReady();
+        boolean personnes = personneSearchIndex.isReady();
+        boolean matching = documentMatchingService.isReady();
+        Health.Builder builder = annonces && documents && personnes && matching ? Health.up() : Health.unknown();
+        return builder
+                .withDetail("annonces", annonces)
+                .withDetail("documents", documents)
+                .withDetail("personnes", personnes)
+                .withDetail("matching", matching)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.documents.lostdocumentsapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * Diagnostic du mode threads virtuels ({@code spring.threads.virtual.enabled},
+ * profil {@code virtual-threads}), journalisé au démarrage.
+ *
+ * <p>
+ * Les requêtes Tomcat et les tâches planifiées ne sont alors plus bornées par
+ * un pool de threads : la concurrence vers MySQL l'est par le pool Hikari, dont
+ * la taille est rappelée. Un thread virtuel bloqué en E/S dans un bloc
+ * {@code synchronized} immobilise son thread porteur ; c'est le cas de MySQL
+ * Connector/J avant la version 9, signalé ici.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsDiagnostics {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsDiagnostics.class);
+
+    // Première version de Connector/J sans synchronized sur les chemins d'E/S
+    private static final int MYSQL_DRIVER_WITHOUT_PINNING = 9;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        log.info("Threads virtuels activés : requêtes HTTP, tâches @Async et @Scheduled ({} processeurs porteurs)",
+                Runtime.getRuntime().availableProcessors());
+        reportPool();
+        reportDriver();
+        if (System.getProperty("jdk.tracePinnedThreads") == null) {
+            log.info("Traces d'épinglage désactivées ; lancer avec -Djdk.tracePinnedThreads=short pour les obtenir");
+        } else {
+            log.info("Traces d'épinglage actives (jdk.tracePinnedThreads={})",
+                    System.getProperty("jdk.tracePinnedThreads"));
+        }
+    }
+
+    private void reportPool() {
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            log.info("Pool JDBC {} : taille non vérifiée", dataSource.getClass().getName());
+            return;
+        }
+        log.info("Pool Hikari {} : {} connexions max ({} au repos), attente max {} ms — au-delà, les requêtes attendent",
+                hikari.getPoolName(), hikari.getMaximumPoolSize(), hikari.getMinimumIdle(),
+                hikari.getConnectionTimeout());
+    }
+
+    private void reportDriver() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String driver = metaData.getDriverName() + " " + metaData.getDriverVersion();
+            if (metaData.getDriverName().startsWith("MySQL Connector")
+                    && metaData.getDriverMajorVersion() < MYSQL_DRIVER_WITHOUT_PINNING) {
+                log.warn("Pilote {} : ses blocs synchronized épinglent les threads virtuels pendant les E/S ; "
+                        + "passer à Connector/J {}+ ou garder un pool Hikari proche du nombre de porteurs",
+                        driver, MYSQL_DRIVER_WITHOUT_PINNING);
+            } else {
+                log.info("Pilote {}", driver);
+            }
+        } catch (SQLException e) {
+            log.warn("Pilote JDBC non vérifié : connexion impossible au démarrage", e);
+        }
+    }
+}
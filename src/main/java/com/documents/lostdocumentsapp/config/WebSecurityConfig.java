@@ -1,6 +1,7 @@
 package com.documents.lostdocumentsapp.config;
 
 import com.documents.lostdocumentsapp.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -46,12 +47,15 @@ public class WebSecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
+                        // Dispatch asynchrone des flux SSE : la requête initiale a déjà été autorisée
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Endpoints publics - à autoriser AVANT toute authentification
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
                         .requestMatchers("/api/profile/info").permitAll()
                         .requestMatchers("/api/announcements/stats").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/announcements").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/announcements/feed").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/announcements/search").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/announcements/urgent").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/announcements/by-city/**").permitAll()
@@ -62,7 +66,7 @@ public class WebSecurityConfig {
                         .requestMatchers("/swagger-resources/**").permitAll()
                         .requestMatchers("/webjars/**").permitAll()
                         .requestMatchers("/configuration/**").permitAll()
-                        .requestMatchers("/actuator/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                         // Endpoints nécessitant authentification mais pas de rôle spécifique
                         .requestMatchers("/api/users/**").authenticated()
                         .requestMatchers("/api/profile/**").authenticated()
@@ -73,6 +77,8 @@ public class WebSecurityConfig {
                         .requestMatchers("/api/personnes/**").authenticated()
                         // Endpoints protégés par rôle
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        // Métriques et informations internes (trafic, caches, Hibernate) : administrateurs seulement
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Tous les autres endpoints nécessitent une authentification
                         .anyRequest().authenticated())
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -1,14 +1,20 @@
 package com.documents.lostdocumentsapp.controller;
 
+import com.documents.lostdocumentsapp.dto.ExpiryJob;
 import com.documents.lostdocumentsapp.model.Annonce;
 import com.documents.lostdocumentsapp.model.AnnouncementStatus;
 import com.documents.lostdocumentsapp.model.User;
+import com.documents.lostdocumentsapp.service.AnnonceExpiryService;
 import com.documents.lostdocumentsapp.service.AnnonceService;
+import com.documents.lostdocumentsapp.service.AnnonceStatisticsService;
 import com.documents.lostdocumentsapp.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -25,12 +31,20 @@ import java.util.Map;
 @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
 public class AdminController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private AnnonceService annonceService;
 
+    @Autowired
+    private AnnonceExpiryService annonceExpiryService;
+
+    @Autowired
+    private AnnonceStatisticsService annonceStatisticsService;
+
     @GetMapping("/users")
     @Operation(summary = "Gestion des utilisateurs", description = "Récupère tous les utilisateurs pour l'administration")
     public ResponseEntity<List<User>> getAllUsers() {
@@ -101,46 +115,53 @@ public class AdminController {
     }
 
     @PostMapping("/annonces/mark-expired")
-    @Operation(summary = "Marquer les annonces expirées", description = "Marque automatiquement les annonces expirées")
-    public ResponseEntity<Map<String, String>> markExpiredAnnonces() {
-        annonceService.markExpiredAnnonces();
-        return ResponseEntity.ok(Map.of("message", "Annonces expirées marquées avec succès"));
+    @Operation(summary = "Marquer les annonces expirées", description = "Lance en arrière-plan le passage en EXPIRED des annonces échues")
+    public ResponseEntity<Map<String, Object>> markExpiredAnnonces() {
+        ExpiryJob job = annonceExpiryService.triggerAsync();
+        return ResponseEntity.accepted().body(Map.of(
+                "message", "Expiration des annonces lancée",
+                "jobId", job.getJobId()));
+    }
+
+    @GetMapping("/annonces/mark-expired/{jobId}")
+    @Operation(summary = "Suivi de l'expiration", description = "Récupère l'état d'une exécution de l'expiration des annonces")
+    public ResponseEntity<ExpiryJob> getExpiryJob(@PathVariable String jobId) {
+        return annonceExpiryService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/statistics")
     @Operation(summary = "Statistiques générales", description = "Récupère les statistiques générales de l'application")
     public ResponseEntity<Map<String, Object>> getStatistics() {
+        // Compteurs tenus en mémoire, recalés périodiquement
         Map<String, Object> stats = new HashMap<>();
 
         // Statistiques des utilisateurs
-        stats.put("totalUsers", userService.getAllUsers().size());
-        stats.put("activeUsers", userService.getActiveUsers().size());
+        stats.put("totalUsers", annonceStatisticsService.getTotalUsers());
+        stats.put("activeUsers", annonceStatisticsService.getActiveUsers());
 
         // Statistiques des annonces
-        stats.put("totalAnnonces", annonceService.getAllAnnonces(
-                org.springframework.data.domain.PageRequest.of(0, 1000)).getTotalElements());
-        stats.put("activeAnnonces", annonceService.getAnnonceCountByStatus(AnnouncementStatus.ACTIVE));
-        stats.put("resolvedAnnonces",
-                annonceService.getAnnonceCountByStatus(AnnouncementStatus.RESOLVED));
-        stats.put("expiredAnnonces", annonceService.getAnnonceCountByStatus(AnnouncementStatus.EXPIRED));
-        stats.put("cancelledAnnonces",
-                annonceService.getAnnonceCountByStatus(AnnouncementStatus.CANCELLED));
-
-        // Statistiques par type de document
-        Map<String, Long> documentTypeStats = new HashMap<>();
-        for (com.documents.lostdocumentsapp.model.DocumentType type : com.documents.lostdocumentsapp.model.DocumentType
-                .values()) {
-            documentTypeStats.put(type.name(), annonceService.getAnnonceCountByDocumentType(type));
-        }
-        stats.put("documentTypeStats", documentTypeStats);
+        stats.put("totalAnnonces", annonceStatisticsService.getTotalAnnonces());
+        stats.put("activeAnnonces", annonceStatisticsService.getCountByStatus(AnnouncementStatus.ACTIVE));
+        stats.put("resolvedAnnonces", annonceStatisticsService.getCountByStatus(AnnouncementStatus.RESOLVED));
+        stats.put("expiredAnnonces", annonceStatisticsService.getCountByStatus(AnnouncementStatus.EXPIRED));
+        stats.put("cancelledAnnonces", annonceStatisticsService.getCountByStatus(AnnouncementStatus.CANCELLED));
+
+        // Statistiques par type de document et par ville
+        stats.put("documentTypeStats", annonceStatisticsService.getCountsByDocumentType());
+        stats.put("cityStats", annonceStatisticsService.getCountsByCity());
+        stats.put("reconciledAt", annonceStatisticsService.getReconciledAt());
 
         return ResponseEntity.ok(stats);
     }
 
     @GetMapping("/annonces/expired")
     @Operation(summary = "Annonces expirées", description = "Récupère la liste des annonces expirées")
-    public ResponseEntity<List<Annonce>> getExpiredAnnonces() {
-        List<Annonce> expiredAnnonces = annonceService.getExpiredAnnonces();
+    public ResponseEntity<Page<Annonce>> getExpiredAnnonces(
+            @Parameter(description = "Numéro de page (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "50") int size) {
+        Page<Annonce> expiredAnnonces = annonceService.getExpiredAnnonces(PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE)));
         return ResponseEntity.ok(expiredAnnonces);
     }
 
@@ -1,32 +1,40 @@
 package com.documents.lostdocumentsapp.controller;
 
+import com.documents.lostdocumentsapp.dto.AnnonceSummary;
 import com.documents.lostdocumentsapp.dto.CreateAnnonceRequest;
+import com.documents.lostdocumentsapp.dto.CursorPage;
 import com.documents.lostdocumentsapp.model.Annonce;
 import com.documents.lostdocumentsapp.model.AnnouncementStatus;
 import com.documents.lostdocumentsapp.model.DocumentType;
 import com.documents.lostdocumentsapp.model.User;
 import com.documents.lostdocumentsapp.security.CustomUserDetails;
 import com.documents.lostdocumentsapp.service.AnnonceService;
+import com.documents.lostdocumentsapp.service.AnnonceStatisticsService;
+import com.documents.lostdocumentsapp.service.InvalidStatusTransitionException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/announcements")
@@ -34,15 +42,24 @@ import java.util.Map;
 @SecurityRequirement(name = "bearerAuth")
 public class AnnonceController {
 
+    private static final Logger log = LoggerFactory.getLogger(AnnonceController.class);
+
+    // Tailles de page maximales acceptées
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_FEED_SIZE = 100;
+
     @Autowired
     private AnnonceService annonceService;
 
+    @Autowired
+    private AnnonceStatisticsService annonceStatisticsService;
+
     @PostMapping
     @Operation(summary = "Créer une annonce", description = "Crée une nouvelle annonce de document perdu")
     public ResponseEntity<Annonce> createAnnonce(@Valid @RequestBody CreateAnnonceRequest request,
             Authentication authentication) {
-        System.out.println("Authorities: " + authentication.getAuthorities());
-        System.out.println("Principal class: " + authentication.getPrincipal().getClass().getName());
+        log.debug("Création d'annonce par {} (autorités : {})", authentication.getName(),
+                authentication.getAuthorities());
         CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
         User user = customUserDetails.getUser();
         Annonce createdAnnonce = annonceService.createAnnonceFromRequest(user.getId(), request);
@@ -58,15 +75,29 @@ public class AnnonceController {
             @Parameter(description = "Direction du tri (asc/desc)") @RequestParam(defaultValue = "desc") String sortDir) {
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), sort);
 
         Page<Annonce> announcements = annonceService.getAllAnnonces(pageable);
         return ResponseEntity.ok(announcements);
     }
 
+    @GetMapping("/feed")
+    @Operation(summary = "Fil des annonces", description = "Récupère les annonces actives par curseur, sans comptage total")
+    public ResponseEntity<?> getAnnonceFeed(
+            @Parameter(description = "Curseur de la page précédente (createdAt,id)") @RequestParam(required = false) String after,
+            @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "20") int size) {
+        try {
+            CursorPage<Annonce> feed = annonceService.getAnnonceFeed(after,
+                    Math.max(1, Math.min(size, MAX_FEED_SIZE)));
+            return ResponseEntity.ok(feed);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Rechercher des annonces", description = "Recherche des annonces avec des filtres dynamiques")
-    public ResponseEntity<Page<Annonce>> searchAnnonces(
+    public ResponseEntity<Page<AnnonceSummary>> searchAnnonces(
             @Parameter(description = "Type de document") @RequestParam(required = false) DocumentType type,
             @Parameter(description = "Ville") @RequestParam(required = false) String city,
             @Parameter(description = "Code postal") @RequestParam(required = false) String postalCode,
@@ -82,7 +113,7 @@ public class AnnonceController {
             @Parameter(description = "Direction du tri (asc/desc)") @RequestParam(defaultValue = "desc") String sortDir) {
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), sort);
         AnnouncementStatus statusEnum = null;
         if (status != null) {
             try {
@@ -91,7 +122,7 @@ public class AnnonceController {
                 // Ignore invalid status values
             }
         }
-        Page<Annonce> announcements = annonceService.searchAnnoncesWithFilters(type, city, postalCode, statusEnum,
+        Page<AnnonceSummary> announcements = annonceService.searchAnnoncesWithFilters(type, city, postalCode, statusEnum,
                 urgent, lossDateFrom, lossDateTo, rewardMin, rewardMax, pageable);
         return ResponseEntity.ok(announcements);
     }
@@ -99,71 +130,50 @@ public class AnnonceController {
     @GetMapping("/{announcementId}")
     @Operation(summary = "Obtenir une annonce par ID", description = "Récupère les détails d'une annonce spécifique")
     public ResponseEntity<Annonce> getAnnonceById(@PathVariable Long announcementId) {
-        Annonce announcement = annonceService.getAnnonceById(announcementId);
-        // Increment views when viewing the announcement
-        annonceService.incrementViews(announcementId);
+        // Compte la vue (écriture différée) et renvoie le total à jour
+        Annonce announcement = annonceService.viewAnnonce(announcementId);
         return ResponseEntity.ok(announcement);
     }
 
     @GetMapping("/my-announcements")
     @Operation(summary = "Mes annonces", description = "Récupère les annonces de l'utilisateur connecté")
-    public ResponseEntity<List<Annonce>> getMyAnnonces(Authentication authentication) {
+    public ResponseEntity<Page<Annonce>> getMyAnnonces(
+            @Parameter(description = "Numéro de page (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
         CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
         User user = customUserDetails.getUser();
-        List<Annonce> announcements = annonceService.getAnnoncesByUser(user.getId());
+        Pageable pageable = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), Sort.by("createdAt").descending());
+        Page<Annonce> announcements = annonceService.getAnnoncesByUser(user.getId(), pageable);
         return ResponseEntity.ok(announcements);
     }
 
     @PutMapping("/{announcementId}")
     @Operation(summary = "Mettre à jour une annonce", description = "Met à jour une annonce existante")
-    public ResponseEntity<Annonce> updateAnnonce(@PathVariable Long announcementId,
+    public ResponseEntity<?> updateAnnonce(@PathVariable Long announcementId,
             @Valid @RequestBody Annonce announcementDetails,
             Authentication authentication) {
         CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
         User user = customUserDetails.getUser();
-        Annonce announcement = annonceService.getAnnonceById(announcementId);
-
-        // Vérifier que l'utilisateur est le propriétaire de l'annonce
-        if (!announcement.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(403).build();
-        }
-
-        Annonce updatedAnnonce = annonceService.updateAnnonce(announcementId, announcementDetails);
-        return ResponseEntity.ok(updatedAnnonce);
+        return asOwner(() -> annonceService.updateAnnonce(announcementId, user.getId(), announcementDetails));
     }
 
     @PostMapping("/{announcementId}/resolve")
     @Operation(summary = "Marquer comme résolu", description = "Marque une annonce comme résolue")
-    public ResponseEntity<Annonce> resolveAnnonce(@PathVariable Long announcementId,
+    public ResponseEntity<?> resolveAnnonce(@PathVariable Long announcementId,
             Authentication authentication) {
         CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
         User user = customUserDetails.getUser();
-        Annonce announcement = annonceService.getAnnonceById(announcementId);
-
-        // Vérifier que l'utilisateur est le propriétaire de l'annonce
-        if (!announcement.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(403).build();
-        }
-
-        Annonce resolvedAnnonce = annonceService.resolveAnnonce(announcementId);
-        return ResponseEntity.ok(resolvedAnnonce);
+        return asOwner(() -> annonceService.resolveAnnonce(announcementId, user.getId()));
     }
 
     @PostMapping("/{announcementId}/cancel")
     @Operation(summary = "Annuler une annonce", description = "Annule une annonce")
-    public ResponseEntity<Annonce> cancelAnnonce(@PathVariable Long announcementId,
+    public ResponseEntity<?> cancelAnnonce(@PathVariable Long announcementId,
             Authentication authentication) {
         CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
         User user = customUserDetails.getUser();
-        Annonce announcement = annonceService.getAnnonceById(announcementId);
-
-        // Vérifier que l'utilisateur est le propriétaire de l'annonce
-        if (!announcement.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(403).build();
-        }
-
-        Annonce cancelledAnnonce = annonceService.cancelAnnonce(announcementId);
-        return ResponseEntity.ok(cancelledAnnonce);
+        return asOwner(() -> annonceService.cancelAnnonce(announcementId, user.getId()));
     }
 
     @DeleteMapping("/{announcementId}")
@@ -172,92 +182,100 @@ public class AnnonceController {
             Authentication authentication) {
         CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
         User user = customUserDetails.getUser();
-        Annonce announcement = annonceService.getAnnonceById(announcementId);
-
-        // Vérifier que l'utilisateur est le propriétaire de l'annonce
-        if (!announcement.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(403).build();
-        }
-
-        annonceService.deleteAnnonce(announcementId);
-        return ResponseEntity.ok(Map.of("message", "Annonce supprimée avec succès"));
+        return asOwner(() -> {
+            annonceService.deleteAnnonce(announcementId, user.getId());
+            return Map.of("message", "Annonce supprimée avec succès");
+        });
     }
 
     @GetMapping("/urgent")
-    @Operation(summary = "Annonces urgentes", description = "Récupère les annonces marquées comme urgentes")
-    public ResponseEntity<List<Annonce>> getUrgentAnnonces() {
-        List<Annonce> announcements = annonceService.getUrgentAnnonces();
+    @Operation(summary = "Annonces urgentes", description = "Récupère, page par page, les annonces actives marquées comme urgentes")
+    public ResponseEntity<Slice<AnnonceSummary>> getUrgentAnnonces(
+            @Parameter(description = "Numéro de page (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "20") int size) {
+        Slice<AnnonceSummary> announcements = annonceService.getUrgentAnnonces(listPage(page, size));
         return ResponseEntity.ok(announcements);
     }
 
     @GetMapping("/by-city/{city}")
-    @Operation(summary = "Annonces par ville", description = "Récupère les annonces d'une ville spécifique")
-    public ResponseEntity<List<Annonce>> getAnnoncesByCity(@PathVariable String city) {
-        List<Annonce> announcements = annonceService.getAnnoncesByCity(city);
+    @Operation(summary = "Annonces par ville", description = "Récupère, page par page, les annonces actives d'une ville spécifique")
+    public ResponseEntity<Slice<AnnonceSummary>> getAnnoncesByCity(@PathVariable String city,
+            @Parameter(description = "Numéro de page (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "20") int size) {
+        Slice<AnnonceSummary> announcements = annonceService.getAnnoncesByCity(city, listPage(page, size));
         return ResponseEntity.ok(announcements);
     }
 
     @GetMapping("/by-type/{type}")
-    @Operation(summary = "Annonces par type", description = "Récupère les annonces d'un type de document spécifique")
-    public ResponseEntity<List<Annonce>> getAnnoncesByType(@PathVariable DocumentType type) {
-        List<Annonce> announcements = annonceService.getAnnoncesByDocumentType(type);
+    @Operation(summary = "Annonces par type", description = "Récupère, page par page, les annonces actives d'un type de document spécifique")
+    public ResponseEntity<Slice<AnnonceSummary>> getAnnoncesByType(@PathVariable DocumentType type,
+            @Parameter(description = "Numéro de page (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "20") int size) {
+        Slice<AnnonceSummary> announcements = annonceService.getAnnoncesByDocumentType(type, listPage(page, size));
         return ResponseEntity.ok(announcements);
     }
 
     @GetMapping("/by-holder/{holderName}")
-    @Operation(summary = "Recherche par nom", description = "Recherche des annonces par nom du titulaire")
-    public ResponseEntity<List<Annonce>> searchByHolderName(@PathVariable String holderName) {
-        List<Annonce> announcements = annonceService.searchByDocumentHolder(holderName);
+    @Operation(summary = "Recherche par nom", description = "Recherche, page par page, les annonces actives par nom du titulaire")
+    public ResponseEntity<Slice<AnnonceSummary>> searchByHolderName(@PathVariable String holderName,
+            @Parameter(description = "Numéro de page (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "20") int size) {
+        Slice<AnnonceSummary> announcements = annonceService.searchByDocumentHolder(holderName,
+                listPage(page, size));
         return ResponseEntity.ok(announcements);
     }
 
     @PostMapping("/{announcementId}/extend")
     @Operation(summary = "Prolonger une annonce", description = "Prolonge la durée de validité d'une annonce")
-    public ResponseEntity<Annonce> extendAnnonce(@PathVariable Long announcementId,
+    public ResponseEntity<?> extendAnnonce(@PathVariable Long announcementId,
             @RequestParam int days,
             Authentication authentication) {
         CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
         User user = customUserDetails.getUser();
-        Annonce announcement = annonceService.getAnnonceById(announcementId);
-
-        // Vérifier que l'utilisateur est le propriétaire de l'annonce
-        if (!announcement.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(403).build();
-        }
-
-        Annonce extendedAnnonce = annonceService.extendAnnonce(announcementId, days);
-        return ResponseEntity.ok(extendedAnnonce);
+        return asOwner(() -> annonceService.extendAnnonce(announcementId, user.getId(), days));
     }
 
     @PutMapping("/{announcementId}/status")
     @Operation(summary = "Mettre à jour le statut d'une annonce", description = "Met à jour le statut d'une annonce (ACTIVE, RESOLVED, EXPIRED)")
-    public ResponseEntity<Annonce> updateAnnonceStatus(@PathVariable Long announcementId,
+    public ResponseEntity<?> updateAnnonceStatus(@PathVariable Long announcementId,
             @RequestParam AnnouncementStatus status,
             Authentication authentication) {
         CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
         User user = customUserDetails.getUser();
-        Annonce announcement = annonceService.getAnnonceById(announcementId);
-
-        // Vérifier que l'utilisateur est le propriétaire de l'annonce
-        if (!announcement.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(403).build();
-        }
-
-        Annonce updatedAnnonce = annonceService.updateStatus(announcementId, status);
-        return ResponseEntity.ok(updatedAnnonce);
+        return asOwner(() -> annonceService.updateStatus(announcementId, user.getId(), status));
     }
 
     @GetMapping("/stats")
-    @Operation(summary = "Statistiques", description = "Récupère les statistiques des annonces")
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Statistiques", description = "Récupère les statistiques des annonces (servies depuis la mémoire)")
     public ResponseEntity<Map<String, Object>> getAnnonceStats() {
         Map<String, Object> stats = new HashMap<>();
 
-        stats.put("totalActive", annonceService.getAnnonceCountByStatus(AnnouncementStatus.ACTIVE));
-        stats.put("totalResolved", annonceService.getAnnonceCountByStatus(AnnouncementStatus.RESOLVED));
-        stats.put("totalExpired", annonceService.getAnnonceCountByStatus(AnnouncementStatus.EXPIRED));
-        stats.put("totalCancelled", annonceService.getAnnonceCountByStatus(AnnouncementStatus.CANCELLED));
+        stats.put("totalActive", annonceStatisticsService.getCountByStatus(AnnouncementStatus.ACTIVE));
+        stats.put("totalResolved", annonceStatisticsService.getCountByStatus(AnnouncementStatus.RESOLVED));
+        stats.put("totalExpired", annonceStatisticsService.getCountByStatus(AnnouncementStatus.EXPIRED));
+        stats.put("totalCancelled", annonceStatisticsService.getCountByStatus(AnnouncementStatus.CANCELLED));
+        stats.put("byDocumentType", annonceStatisticsService.getCountsByDocumentType());
+        stats.put("byCity", annonceStatisticsService.getCountsByCity());
 
         return ResponseEntity.ok(stats);
     }
+
+    // Listes publiques : tri fixé par la requête, taille bornée
+    private static Pageable listPage(int page, int size) {
+        return PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    // Mutations du propriétaire : 404 si l'annonce n'existe pas, 403 si elle appartient à un autre utilisateur,
+    // 409 si la transition de statut est interdite ou perd contre une écriture concurrente
+    private static ResponseEntity<?> asOwner(Supplier<?> mutation) {
+        try {
+            return ResponseEntity.ok(mutation.get());
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(403).build();
+        } catch (InvalidStatusTransitionException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
 }
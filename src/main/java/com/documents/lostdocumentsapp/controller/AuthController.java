@@ -9,6 +9,8 @@ import com.documents.lostdocumentsapp.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,6 +28,8 @@ import java.util.Map;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -47,8 +51,7 @@ public class AuthController {
         User user = userService.getUserByEmail(userDetails.getUsername());
         String jwt = jwtUtil.generateToken(user);
 
-        System.out.println("🔐 Login successful - User: " + user.getEmail());
-        System.out.println("🔐 Login successful - User roles: " + user.getRoles());
+        log.debug("Connexion réussie de {} (rôles : {})", user.getEmail(), user.getRoles());
 
         return ResponseEntity.ok(new JwtResponse(jwt,
                 user.getId(),
@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,6 +27,8 @@ import java.util.Map;
 @SecurityRequirement(name = "bearerAuth")
 public class DocumentController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private DocumentService documentService;
 
@@ -84,9 +87,12 @@ public class DocumentController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Rechercher des documents", description = "Recherche des documents par terme")
-    public ResponseEntity<List<Document>> searchDocuments(@RequestParam String searchTerm) {
-        List<Document> documents = documentService.searchDocuments(searchTerm);
+    @Operation(summary = "Rechercher des documents", description = "Recherche, page par page, des documents contenant le terme (du plus récent au plus ancien)")
+    public ResponseEntity<Slice<Document>> searchDocuments(@RequestParam String searchTerm,
+            @Parameter(description = "Numéro de page (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "20") int size) {
+        Slice<Document> documents = documentService.searchDocuments(searchTerm,
+                PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE)));
         return ResponseEntity.ok(documents);
     }
 
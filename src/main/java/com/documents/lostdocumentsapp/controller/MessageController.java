@@ -1,17 +1,24 @@
 package com.documents.lostdocumentsapp.controller;
 
+import com.documents.lostdocumentsapp.dto.ConversationSummary;
+import com.documents.lostdocumentsapp.dto.CursorPage;
 import com.documents.lostdocumentsapp.model.Message;
 import com.documents.lostdocumentsapp.model.User;
 import com.documents.lostdocumentsapp.security.CustomUserDetails;
 import com.documents.lostdocumentsapp.service.MessageService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.List;
@@ -23,6 +30,9 @@ import java.util.Map;
 @SecurityRequirement(name = "bearerAuth")
 public class MessageController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_HISTORY_SIZE = 100;
+
     @Autowired
     private MessageService messageService;
 
@@ -58,22 +68,46 @@ public class MessageController {
     }
 
     @GetMapping
-    @Operation(summary = "Obtenir mes messages", description = "Récupère tous les messages de l'utilisateur connecté")
-    public ResponseEntity<List<Message>> getMyMessages(Authentication authentication) {
+    @Operation(summary = "Obtenir mes messages", description = "Récupère, page par page, les messages de l'utilisateur connecté")
+    public ResponseEntity<Page<Message>> getMyMessages(
+            @Parameter(description = "Numéro de page (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "50") int size,
+            Authentication authentication) {
         CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
         User user = customUserDetails.getUser();
-        List<Message> messages = messageService.getMessagesByUser(user.getId());
+        Page<Message> messages = messageService.getMessagesByUser(user.getId(),
+                PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE)));
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping("/inbox")
+    @Operation(summary = "Boîte de réception", description = "Récupère les conversations de l'utilisateur, de la plus récente à la plus ancienne")
+    public ResponseEntity<Page<ConversationSummary>> getInbox(
+            @Parameter(description = "Numéro de page (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
+        User user = customUserDetails.getUser();
+        Page<ConversationSummary> inbox = messageService.getInbox(user.getId(),
+                PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE)));
+        return ResponseEntity.ok(inbox);
+    }
+
     @GetMapping("/conversation/{userId}")
-    @Operation(summary = "Obtenir une conversation", description = "Récupère la conversation entre deux utilisateurs")
-    public ResponseEntity<List<Message>> getConversation(@PathVariable Long userId,
+    @Operation(summary = "Obtenir une conversation", description = "Récupère l'historique entre deux utilisateurs, par pages de plus en plus anciennes")
+    public ResponseEntity<?> getConversation(@PathVariable Long userId,
+            @Parameter(description = "Identifiant du plus ancien message déjà chargé") @RequestParam(required = false) Long before,
+            @Parameter(description = "Nombre de messages") @RequestParam(defaultValue = "50") int limit,
             Authentication authentication) {
         CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
         User currentUser = customUserDetails.getUser();
-        List<Message> messages = messageService.getConversationBetweenUsers(currentUser.getId(), userId);
-        return ResponseEntity.ok(messages);
+        try {
+            CursorPage<Message> messages = messageService.getConversationHistory(currentUser.getId(), userId, before,
+                    Math.max(1, Math.min(limit, MAX_HISTORY_SIZE)));
+            return ResponseEntity.ok(messages);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
     @GetMapping("/unread")
@@ -85,10 +119,20 @@ public class MessageController {
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Flux temps réel", description = "Flux Server-Sent Events des nouveaux messages et du nombre de non lus. "
+            + "Le JWT peut être passé dans le paramètre token (EventSource ne permet pas d'en-tête)")
+    public SseEmitter streamMessages(Authentication authentication) {
+        CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
+        User user = customUserDetails.getUser();
+        return messageService.subscribe(user.getId());
+    }
+
     @GetMapping("/unread-count")
     @Operation(summary = "Nombre de messages non lus", description = "Récupère le nombre de messages non lus")
     public ResponseEntity<Map<String, Long>> getUnreadMessageCount(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
+        User user = customUserDetails.getUser();
         Long count = messageService.getUnreadMessageCount(user.getId());
         return ResponseEntity.ok(Map.of("unreadCount", count));
     }
@@ -120,12 +164,15 @@ public class MessageController {
     }
 
     @PutMapping("/mark-all-read")
-    @Operation(summary = "Marquer tous comme lus", description = "Marque tous les messages comme lus")
-    public ResponseEntity<Map<String, String>> markAllAsRead(Authentication authentication) {
+    @Operation(summary = "Marquer tous comme lus", description = "Marque comme lus les messages reçus, éventuellement jusqu'à un message donné")
+    public ResponseEntity<Map<String, Object>> markAllAsRead(
+            @Parameter(description = "Identifiant du dernier message à marquer (inclus)") @RequestParam(required = false) Long upTo,
+            Authentication authentication) {
         CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
         User user = customUserDetails.getUser();
-        messageService.markAllAsRead(user.getId());
-        return ResponseEntity.ok(Map.of("message", "Tous les messages ont été marqués comme lus"));
+        long updated = messageService.markAllAsRead(user.getId(), upTo);
+        return ResponseEntity.ok(Map.of("message", "Tous les messages ont été marqués comme lus",
+                "updatedCount", updated));
     }
 
     @GetMapping("/{messageId}")
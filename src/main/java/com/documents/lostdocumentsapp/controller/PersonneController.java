@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -25,6 +26,8 @@ import java.util.Map;
 @SecurityRequirement(name = "bearerAuth")
 public class PersonneController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private PersonneService personneService;
 
@@ -83,9 +86,12 @@ public class PersonneController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Rechercher des personnes", description = "Recherche des personnes par terme")
-    public ResponseEntity<List<Personne>> searchPersonnes(@RequestParam String searchTerm) {
-        List<Personne> personnes = personneService.searchPersonnes(searchTerm);
+    @Operation(summary = "Rechercher des personnes", description = "Recherche, page par page, des personnes contenant le terme (du plus récent au plus ancien)")
+    public ResponseEntity<Slice<Personne>> searchPersonnes(@RequestParam String searchTerm,
+            @Parameter(description = "Numéro de page (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "20") int size) {
+        Slice<Personne> personnes = personneService.searchPersonnes(searchTerm,
+                PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE)));
         return ResponseEntity.ok(personnes);
     }
 
@@ -3,14 +3,20 @@ package com.documents.lostdocumentsapp.controller;
 import com.documents.lostdocumentsapp.model.Annonce;
 import com.documents.lostdocumentsapp.model.Message;
 import com.documents.lostdocumentsapp.model.User;
+import com.documents.lostdocumentsapp.security.CustomUserDetails;
 import com.documents.lostdocumentsapp.service.AnnonceService;
 import com.documents.lostdocumentsapp.service.MessageService;
 import com.documents.lostdocumentsapp.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +30,8 @@ import java.util.Map;
 @SecurityRequirement(name = "bearerAuth")
 public class ProfileController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private UserService userService;
 
@@ -42,7 +50,7 @@ public class ProfileController {
     @GetMapping("/me")
     @Operation(summary = "Obtenir mon profil", description = "Récupère les informations du profil de l'utilisateur connecté")
     public ResponseEntity<User> getMyProfile(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        User user = ((CustomUserDetails) authentication.getPrincipal()).getUser();
         User userProfile = userService.getUserById(user.getId());
         return ResponseEntity.ok(userProfile);
     }
@@ -67,7 +75,7 @@ public class ProfileController {
     @PutMapping("/update")
     @Operation(summary = "Mettre à jour mon profil", description = "Met à jour les informations du profil utilisateur")
     public ResponseEntity<User> updateProfile(@RequestBody User userDetails, Authentication authentication) {
-        User currentUser = (User) authentication.getPrincipal();
+        User currentUser = ((CustomUserDetails) authentication.getPrincipal()).getUser();
         User updatedUser = userService.updateUser(currentUser.getId(), userDetails);
         return ResponseEntity.ok(updatedUser);
     }
@@ -76,7 +84,7 @@ public class ProfileController {
     @Operation(summary = "Changer mon mot de passe", description = "Change le mot de passe de l'utilisateur connecté")
     public ResponseEntity<Map<String, String>> changePassword(@RequestBody Map<String, String> passwordData,
             Authentication authentication) {
-        User currentUser = (User) authentication.getPrincipal();
+        User currentUser = ((CustomUserDetails) authentication.getPrincipal()).getUser();
         String newPassword = passwordData.get("newPassword");
 
         if (newPassword == null || newPassword.length() < 6) {
@@ -91,7 +99,7 @@ public class ProfileController {
     @GetMapping("/stats")
     @Operation(summary = "Mes statistiques", description = "Récupère les statistiques personnelles de l'utilisateur")
     public ResponseEntity<Map<String, Object>> getMyStats(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        User user = ((CustomUserDetails) authentication.getPrincipal()).getUser();
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("userId", user.getId());
@@ -107,17 +115,21 @@ public class ProfileController {
     }
 
     @GetMapping("/annonces")
-    @Operation(summary = "Mes annonces", description = "Récupère toutes les annonces de l'utilisateur connecté")
-    public ResponseEntity<java.util.List<Annonce>> getMyAnnonces(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
-        java.util.List<Annonce> annonces = annonceService.getAnnoncesByUser(user.getId());
+    @Operation(summary = "Mes annonces", description = "Récupère, page par page, les annonces de l'utilisateur connecté")
+    public ResponseEntity<Page<Annonce>> getMyAnnonces(
+            @Parameter(description = "Numéro de page (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        User user = ((CustomUserDetails) authentication.getPrincipal()).getUser();
+        Pageable pageable = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), Sort.by("createdAt").descending());
+        Page<Annonce> annonces = annonceService.getAnnoncesByUser(user.getId(), pageable);
         return ResponseEntity.ok(annonces);
     }
 
     @GetMapping("/messages")
     @Operation(summary = "Mes messages", description = "Récupère tous les messages reçus par l'utilisateur connecté")
     public ResponseEntity<java.util.List<Message>> getMyMessages(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        User user = ((CustomUserDetails) authentication.getPrincipal()).getUser();
         java.util.List<Message> messages = messageService.getMessagesByReceiver(user.getId());
         return ResponseEntity.ok(messages);
     }
@@ -125,7 +137,7 @@ public class ProfileController {
     @GetMapping("/messages/unread")
     @Operation(summary = "Messages non lus", description = "Récupère le nombre de messages non lus")
     public ResponseEntity<Map<String, Object>> getUnreadMessagesCount(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        User user = ((CustomUserDetails) authentication.getPrincipal()).getUser();
         Long unreadCount = messageService.getUnreadMessageCount(user.getId());
         java.util.List<Message> unreadMessages = messageService.getUnreadMessages(user.getId());
 
@@ -0,0 +1,67 @@
+package com.documents.lostdocumentsapp.dto;
+
+import com.documents.lostdocumentsapp.model.DocumentType;
+
+import java.time.LocalDate;
+
+/**
+ * Vue allégée d'une annonce pour les listes, construite directement par les
+ * requêtes JPQL ({@code SELECT new ...}) : pas d'entité gérée ni de dirty
+ * checking. Le détail complet reste disponible via
+ * {@code GET /api/announcements/{id}}.
+ */
+public class AnnonceSummary {
+
+    private final Long id;
+    private final String title;
+    private final DocumentType documentType;
+    private final String lossCity;
+    private final LocalDate lossDate;
+    private final boolean urgent;
+    private final Double rewardAmount;
+    private final String thumbnail;
+
+    public AnnonceSummary(Long id, String title, DocumentType documentType, String lossCity,
+            LocalDate lossDate, Boolean urgent, Double rewardAmount, String thumbnail) {
+        this.id = id;
+        this.title = title;
+        this.documentType = documentType;
+        this.lossCity = lossCity;
+        this.lossDate = lossDate;
+        this.urgent = Boolean.TRUE.equals(urgent);
+        this.rewardAmount = rewardAmount;
+        this.thumbnail = thumbnail;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public DocumentType getDocumentType() {
+        return documentType;
+    }
+
+    public String getLossCity() {
+        return lossCity;
+    }
+
+    public LocalDate getLossDate() {
+        return lossDate;
+    }
+
+    public boolean isUrgent() {
+        return urgent;
+    }
+
+    public Double getRewardAmount() {
+        return rewardAmount;
+    }
+
+    public String getThumbnail() {
+        return thumbnail;
+    }
+}
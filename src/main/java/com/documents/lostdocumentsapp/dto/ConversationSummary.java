@@ -0,0 +1,70 @@
+package com.documents.lostdocumentsapp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrée de la boîte de réception : interlocuteur, annonce concernée, dernier
+ * message et nombre de messages non lus.
+ */
+public class ConversationSummary {
+
+    private final Long partnerId;
+    private final String partnerFirstName;
+    private final String partnerLastName;
+    private final Long announcementId;
+    private final String announcementTitle;
+    private final Long lastMessageId;
+    private final LocalDateTime lastMessageAt;
+    private final String lastMessagePreview;
+    private final int unreadCount;
+
+    public ConversationSummary(Long partnerId, String partnerFirstName, String partnerLastName,
+            Long announcementId, String announcementTitle, Long lastMessageId, LocalDateTime lastMessageAt,
+            String lastMessagePreview, Integer unreadCount) {
+        this.partnerId = partnerId;
+        this.partnerFirstName = partnerFirstName;
+        this.partnerLastName = partnerLastName;
+        this.announcementId = announcementId;
+        this.announcementTitle = announcementTitle;
+        this.lastMessageId = lastMessageId;
+        this.lastMessageAt = lastMessageAt;
+        this.lastMessagePreview = lastMessagePreview;
+        this.unreadCount = unreadCount != null ? unreadCount : 0;
+    }
+
+    public Long getPartnerId() {
+        return partnerId;
+    }
+
+    public String getPartnerFirstName() {
+        return partnerFirstName;
+    }
+
+    public String getPartnerLastName() {
+        return partnerLastName;
+    }
+
+    public Long getAnnouncementId() {
+        return announcementId;
+    }
+
+    public String getAnnouncementTitle() {
+        return announcementTitle;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public LocalDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+}
@@ -0,0 +1,36 @@
+package com.documents.lostdocumentsapp.dto;
+
+import java.util.List;
+
+/**
+ * Page obtenue par curseur (pagination par clé), sans comptage total.
+ * {@code nextCursor} est à renvoyer tel quel pour obtenir la page suivante.
+ */
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final boolean hasNext;
+
+    public CursorPage(List<T> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public int getSize() {
+        return content.size();
+    }
+}
@@ -1,16 +1,23 @@
 package com.documents.lostdocumentsapp.model;
 
+import com.documents.lostdocumentsapp.util.TextNormalizer;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "annonces")
+@Table(name = "annonces", indexes = {
+        @Index(name = "idx_status_created_at_id", columnList = "status, created_at, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "annonces")
 public class Annonce {
 
     @Id
@@ -102,7 +109,8 @@ public class Annonce {
     @Column(name = "image_url")
     private String imageUrl;
 
-    @Column(name = "views")
+    // Écrit uniquement par le flush de AnnonceViewCounter : une sauvegarde de l'entité ne l'écrase pas
+    @Column(name = "views", updatable = false)
     private Integer views = 0;
 
     @Column(name = "expires_at")
@@ -117,6 +125,21 @@ public class Annonce {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Version pour le verrouillage optimiste ; incrémentée aussi par les UPDATE natifs de statut et d'échéance
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Nom complet du titulaire et ville sous forme normalisée (TextNormalizer) : le repli SQL des
+    // recherches découpe ainsi les mots comme l'index en mémoire, sans dépendre de la collation
+    @JsonIgnore
+    @Column(name = "holder_search", length = 201)
+    private String holderSearch;
+
+    @JsonIgnore
+    @Column(name = "city_search", length = 100)
+    private String citySearch;
+
     @JsonIgnore
     @OneToMany(mappedBy = "announcement", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private java.util.List<Message> messages;
@@ -331,6 +354,14 @@ public class Annonce {
         this.resolvedAt = resolvedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -355,8 +386,42 @@ public class Annonce {
         this.messages = messages;
     }
 
+    public String getHolderSearch() {
+        return holderSearch;
+    }
+
+    public String getCitySearch() {
+        return citySearch;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        updateSearchColumns();
+    }
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
+        updateSearchColumns();
+    }
+
+    private void updateSearchColumns() {
+        this.holderSearch = searchForm(holderName, holderFirstName);
+        this.citySearch = searchForm(lossCity);
+    }
+
+    // Valeurs normalisées séparées par une espace ; aussi utilisé pour renseigner les lignes existantes
+    public static String searchForm(String... values) {
+        StringBuilder form = new StringBuilder();
+        for (String value : values) {
+            String normalized = TextNormalizer.normalize(value);
+            if (!normalized.isEmpty()) {
+                if (!form.isEmpty()) {
+                    form.append(' ');
+                }
+                form.append(normalized);
+            }
+        }
+        return form.toString();
     }
 }
@@ -15,4 +15,16 @@ public enum AnnouncementStatus {
     public String getDisplayName() {
         return displayName;
     }
-}
\ No newline at end of file
+
+    /**
+     * Transitions permises : une annonce active ou expirée peut être résolue,
+     * annulée ou (ré)activée ; une annonce résolue ou annulée est close.
+     */
+    public boolean canTransitionTo(AnnouncementStatus target) {
+        return switch (this) {
+            case ACTIVE -> target == RESOLVED || target == EXPIRED || target == CANCELLED;
+            case EXPIRED -> target == ACTIVE || target == RESOLVED || target == CANCELLED;
+            case RESOLVED, CANCELLED -> false;
+        };
+    }
+}
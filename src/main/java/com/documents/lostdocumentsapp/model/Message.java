@@ -1,6 +1,8 @@
 package com.documents.lostdocumentsapp.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,26 +11,33 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_participants_created_at", columnList = "participant_low, participant_high, created_at")
+})
 public class Message {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Associations paresseuses : le proxy Hibernate est sérialisé sans ses champs techniques ;
+    // des participants, seule l'identité publique est exposée (ni email, ni téléphone, ni mot de passe)
     @NotNull
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sender_id", nullable = false)
+    @JsonIncludeProperties({"id", "firstName", "lastName", "profilePicture"})
     private User sender;
 
     @NotNull
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "receiver_id", nullable = false)
+    @JsonIncludeProperties({"id", "firstName", "lastName", "profilePicture"})
     private User receiver;
 
     @NotNull
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "announcement_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Annonce announcement;
 
     @NotBlank
@@ -48,6 +57,15 @@ public class Message {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Paire normalisée (plus petit, plus grand identifiant) : un fil = une plage d'index
+    @JsonIgnore
+    @Column(name = "participant_low")
+    private Long participantLow;
+
+    @JsonIgnore
+    @Column(name = "participant_high")
+    private Long participantHigh;
+
     // Constructeurs
     public Message() {
         this.createdAt = LocalDateTime.now();
@@ -135,6 +153,22 @@ public class Message {
         this.updatedAt = updatedAt;
     }
 
+    public Long getParticipantLow() {
+        return participantLow;
+    }
+
+    public Long getParticipantHigh() {
+        return participantHigh;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        if (sender != null && receiver != null && sender.getId() != null && receiver.getId() != null) {
+            this.participantLow = Math.min(sender.getId(), receiver.getId());
+            this.participantHigh = Math.max(sender.getId(), receiver.getId());
+        }
+    }
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
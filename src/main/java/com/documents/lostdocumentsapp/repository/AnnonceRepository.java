@@ -1,48 +1,148 @@
 package com.documents.lostdocumentsapp.repository;
 
+import com.documents.lostdocumentsapp.dto.AnnonceSummary;
 import com.documents.lostdocumentsapp.model.Annonce;
 import com.documents.lostdocumentsapp.model.AnnouncementStatus;
 import com.documents.lostdocumentsapp.model.DocumentType;
-import com.documents.lostdocumentsapp.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AnnonceRepository extends JpaRepository<Annonce, Long> {
 
-       List<Annonce> findByUser(User user);
+       // Filtres de la recherche avancée (paramètres nuls ignorés)
+       String ADVANCED_FILTERS_WITHOUT_CITY = "(:type IS NULL OR a.documentType = :type) AND " +
+                     "(:postalCode IS NULL OR a.lossPostalCode = :postalCode) AND " +
+                     "(:status IS NULL OR a.status = :status) AND " +
+                     "(:urgent IS NULL OR a.urgent = :urgent) AND " +
+                     "(:lossDateFrom IS NULL OR a.lossDate >= :lossDateFrom) AND " +
+                     "(:lossDateTo IS NULL OR a.lossDate <= :lossDateTo) AND " +
+                     "(:rewardMin IS NULL OR a.rewardAmount >= :rewardMin) AND " +
+                     "(:rewardMax IS NULL OR a.rewardAmount <= :rewardMax)";
+
+       // Repli SQL des index en mémoire, avec la même sémantique : chaque mot recherché (normalisé par
+       // TextNormalizer) doit commencer un mot du champ. Les champs sont lus dans les colonnes holder_search
+       // et city_search, normalisées de la même façon à l'écriture (Annonce.searchForm), ce qui ne dépend
+       // pas de la collation. MAX_WORD_PREFIXES mots au plus ; un mot vide ne filtre rien.
+       int MAX_WORD_PREFIXES = 3;
 
-       List<Annonce> findByStatus(AnnouncementStatus status);
+       String CITY_WORD_PREFIXES =
+                     "(a.citySearch LIKE CONCAT(:city1, '%') OR a.citySearch LIKE CONCAT('% ', :city1, '%')) AND " +
+                     "(a.citySearch LIKE CONCAT(:city2, '%') OR a.citySearch LIKE CONCAT('% ', :city2, '%')) AND " +
+                     "(a.citySearch LIKE CONCAT(:city3, '%') OR a.citySearch LIKE CONCAT('% ', :city3, '%'))";
 
-       List<Annonce> findByUrgentTrue();
+       String HOLDER_WORD_PREFIXES =
+                     "(a.holderSearch LIKE CONCAT(:holder1, '%') OR a.holderSearch LIKE CONCAT('% ', :holder1, '%')) AND " +
+                     "(a.holderSearch LIKE CONCAT(:holder2, '%') OR a.holderSearch LIKE CONCAT('% ', :holder2, '%')) AND " +
+                     "(a.holderSearch LIKE CONCAT(:holder3, '%') OR a.holderSearch LIKE CONCAT('% ', :holder3, '%'))";
 
-       List<Annonce> findByLossCityContainingIgnoreCase(String city);
+       String ADVANCED_FILTERS = "(:city IS NULL OR (" + CITY_WORD_PREFIXES + ")) AND " + ADVANCED_FILTERS_WITHOUT_CITY;
 
-       List<Annonce> findByLossPostalCode(String postalCode);
+       // Projection des listes : construite directement, sans entité gérée
+       String SUMMARY = "SELECT new com.documents.lostdocumentsapp.dto.AnnonceSummary(" +
+                     "a.id, a.title, a.documentType, a.lossCity, a.lossDate, a.urgent, a.rewardAmount, a.imageUrl) ";
+
+       // Ordre stable des listes paginées
+       String RECENT_FIRST = " ORDER BY a.createdAt DESC, a.id DESC";
+
+       Page<Annonce> findByUserId(Long userId, Pageable pageable);
+
+       @Query(SUMMARY + "FROM Annonce a WHERE a.urgent = true AND a.status = :status" + RECENT_FIRST)
+       Slice<AnnonceSummary> findUrgentByStatus(@Param("status") AnnouncementStatus status, Pageable pageable);
+
+       @Query(SUMMARY + "FROM Annonce a WHERE " + CITY_WORD_PREFIXES + " AND a.status = :status" + RECENT_FIRST)
+       Slice<AnnonceSummary> findByLossCityWordPrefixesAndStatus(@Param("city1") String city1,
+                     @Param("city2") String city2,
+                     @Param("city3") String city3,
+                     @Param("status") AnnouncementStatus status,
+                     Pageable pageable);
+
+       // Résolution des identifiants fournis par l'index en mémoire
+       @Query(SUMMARY + "FROM Annonce a WHERE a.id IN :ids AND a.status = :status" + RECENT_FIRST)
+       Slice<AnnonceSummary> findSummariesByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") AnnouncementStatus status,
+                     Pageable pageable);
 
        @Query("SELECT a FROM Annonce a WHERE a.status = :status ORDER BY a.createdAt DESC")
        Page<Annonce> findByStatusOrderByCreatedAtDesc(@Param("status") AnnouncementStatus status,
                      Pageable pageable);
 
-       @Query("SELECT a FROM Annonce a WHERE a.documentType = :type AND a.status = :status")
-       List<Annonce> findByDocumentTypeAndStatus(@Param("type") DocumentType type,
-                     @Param("status") AnnouncementStatus status);
+       // Fil public paginé par clé (createdAt, id), servi par l'index (status, created_at, id)
+       @Query("SELECT a FROM Annonce a WHERE a.status = :status ORDER BY a.createdAt DESC, a.id DESC")
+       List<Annonce> findFeedFirstPage(@Param("status") AnnouncementStatus status, Pageable pageable);
+
+       @Query("SELECT a FROM Annonce a WHERE a.status = :status AND " +
+                     "(a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+                     "ORDER BY a.createdAt DESC, a.id DESC")
+       List<Annonce> findFeedAfter(@Param("status") AnnouncementStatus status,
+                     @Param("createdAt") LocalDateTime createdAt,
+                     @Param("id") Long id,
+                     Pageable pageable);
+
+       @Query(SUMMARY + "FROM Annonce a WHERE a.documentType = :type AND a.status = :status" + RECENT_FIRST)
+       Slice<AnnonceSummary> findByDocumentTypeAndStatus(@Param("type") DocumentType type,
+                     @Param("status") AnnouncementStatus status,
+                     Pageable pageable);
 
-       @Query("SELECT a FROM Annonce a WHERE a.lossDate BETWEEN :startDate AND :endDate AND a.status = :status")
-       List<Annonce> findByLossDateBetweenAndStatus(@Param("startDate") LocalDate startDate,
+       @Query(SUMMARY + "FROM Annonce a WHERE a.lossDate BETWEEN :startDate AND :endDate AND a.status = :status"
+                     + RECENT_FIRST)
+       Slice<AnnonceSummary> findByLossDateBetweenAndStatus(@Param("startDate") LocalDate startDate,
                      @Param("endDate") LocalDate endDate,
-                     @Param("status") AnnouncementStatus status);
+                     @Param("status") AnnouncementStatus status,
+                     Pageable pageable);
 
-       @Query("SELECT a FROM Annonce a WHERE a.expiresAt < :now AND a.status = 'ACTIVE'")
-       List<Annonce> findExpiredAnnonces(@Param("now") LocalDateTime now);
+       @Query(value = "SELECT a FROM Annonce a WHERE a.expiresAt < :now AND a.status = 'ACTIVE' ORDER BY a.expiresAt",
+                     countQuery = "SELECT COUNT(a) FROM Annonce a WHERE a.expiresAt < :now AND a.status = 'ACTIVE'")
+       Page<Annonce> findExpiredAnnonces(@Param("now") LocalDateTime now, Pageable pageable);
+
+       // Expiration ensembliste par lot, chaque appel dans sa propre transaction
+       @Modifying
+       @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "annonces"))
+       @Transactional
+       @Query(value = "UPDATE annonces SET status = 'EXPIRED', updated_at = :now, version = version + 1 " +
+                     "WHERE expires_at < :now AND status = 'ACTIVE' LIMIT :limit", nativeQuery = true)
+       int expireBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+       /**
+        * Espace de synchronisation des mutations réservées au propriétaire. Il ne
+        * correspond à aucune table : Hibernate ne vide donc pas toute la région
+        * "annonces" du cache, et le service n'en retire que l'annonce modifiée.
+        */
+       String OWNER_MUTATION_SPACE = "annonces_owner_mutation";
+
+       // Mutations du propriétaire : contrôle d'appartenance et écriture en une seule requête.
+       // Statut et échéance sont écrits en compare-and-set : 0 ligne si la version a changé depuis la lecture
+       @Modifying(clearAutomatically = true)
+       @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = OWNER_MUTATION_SPACE))
+       @Query(value = "UPDATE annonces SET status = :status, updated_at = :now, version = version + 1, " +
+                     "resolved_at = CASE WHEN :status = 'RESOLVED' THEN :now ELSE resolved_at END " +
+                     "WHERE id = :id AND user_id = :ownerId AND version = :version", nativeQuery = true)
+       int compareAndSetStatus(@Param("id") Long id, @Param("ownerId") Long ownerId,
+                     @Param("version") Long version, @Param("status") String status,
+                     @Param("now") LocalDateTime now);
+
+       @Modifying(clearAutomatically = true)
+       @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = OWNER_MUTATION_SPACE))
+       @Query(value = "UPDATE annonces SET expires_at = :expiresAt, updated_at = :now, version = version + 1 " +
+                     "WHERE id = :id AND user_id = :ownerId AND version = :version", nativeQuery = true)
+       int compareAndSetExpiresAt(@Param("id") Long id, @Param("ownerId") Long ownerId,
+                     @Param("version") Long version, @Param("expiresAt") LocalDateTime expiresAt,
+                     @Param("now") LocalDateTime now);
 
        @Query("SELECT a FROM Annonce a WHERE " +
                      "(:type IS NULL OR a.documentType = :type) AND " +
@@ -57,29 +157,40 @@ public interface AnnonceRepository extends JpaRepository<Annonce, Long> {
                      @Param("urgent") Boolean urgent,
                      Pageable pageable);
 
-       @Query("SELECT a FROM Annonce a WHERE " +
-                     "a.holderName LIKE %:holderName% OR " +
-                     "a.holderFirstName LIKE %:holderName%")
-       List<Annonce> findByDocumentHolderNameContaining(@Param("holderName") String holderName);
-
-       @Query("SELECT COUNT(a) FROM Annonce a WHERE a.status = :status")
-       Long countByStatus(@Param("status") AnnouncementStatus status);
+       @Query(SUMMARY + "FROM Annonce a WHERE " + HOLDER_WORD_PREFIXES + " AND a.status = :status" + RECENT_FIRST)
+       Slice<AnnonceSummary> findByHolderWordPrefixesAndStatus(@Param("holder1") String holder1,
+                     @Param("holder2") String holder2,
+                     @Param("holder3") String holder3,
+                     @Param("status") AnnouncementStatus status,
+                     Pageable pageable);
 
-       @Query("SELECT COUNT(a) FROM Annonce a WHERE a.documentType = :type")
-       Long countByDocumentType(@Param("type") DocumentType type);
+       // Recalage des statistiques en une seule requête
+       @Query("SELECT a.status, a.documentType, a.lossCity, COUNT(a) FROM Annonce a " +
+                     "GROUP BY a.status, a.documentType, a.lossCity")
+       List<Object[]> countGroupedByStatusTypeAndCity();
 
-       @Query("SELECT a FROM Annonce a WHERE " +
-                     "(:type IS NULL OR a.documentType = :type) AND " +
-                     "(:city IS NULL OR a.lossCity LIKE %:city%) AND " +
-                     "(:postalCode IS NULL OR a.lossPostalCode = :postalCode) AND " +
-                     "(:status IS NULL OR a.status = :status) AND " +
-                     "(:urgent IS NULL OR a.urgent = :urgent) AND " +
-                     "(:lossDateFrom IS NULL OR a.lossDate >= :lossDateFrom) AND " +
-                     "(:lossDateTo IS NULL OR a.lossDate <= :lossDateTo) AND " +
-                     "(:rewardMin IS NULL OR a.rewardAmount >= :rewardMin) AND " +
-                     "(:rewardMax IS NULL OR a.rewardAmount <= :rewardMax)")
-       Page<Annonce> findWithAdvancedFilters(@Param("type") DocumentType type,
+       @Query(value = SUMMARY + "FROM Annonce a WHERE " + ADVANCED_FILTERS,
+                     countQuery = "SELECT COUNT(a) FROM Annonce a WHERE " + ADVANCED_FILTERS)
+       Page<AnnonceSummary> findWithAdvancedFilters(@Param("type") DocumentType type,
                      @Param("city") String city,
+                     @Param("city1") String city1,
+                     @Param("city2") String city2,
+                     @Param("city3") String city3,
+                     @Param("postalCode") String postalCode,
+                     @Param("status") AnnouncementStatus status,
+                     @Param("urgent") Boolean urgent,
+                     @Param("lossDateFrom") LocalDate lossDateFrom,
+                     @Param("lossDateTo") LocalDate lossDateTo,
+                     @Param("rewardMin") Double rewardMin,
+                     @Param("rewardMax") Double rewardMax,
+                     Pageable pageable);
+
+       // Variante utilisée quand la ville a déjà été résolue par l'index en mémoire
+       @Query(value = SUMMARY + "FROM Annonce a WHERE a.id IN :ids AND " + ADVANCED_FILTERS_WITHOUT_CITY,
+                     countQuery = "SELECT COUNT(a) FROM Annonce a WHERE a.id IN :ids AND "
+                                   + ADVANCED_FILTERS_WITHOUT_CITY)
+       Page<AnnonceSummary> findWithAdvancedFiltersInIds(@Param("ids") Collection<Long> ids,
+                     @Param("type") DocumentType type,
                      @Param("postalCode") String postalCode,
                      @Param("status") AnnouncementStatus status,
                      @Param("urgent") Boolean urgent,
@@ -88,4 +199,20 @@ public interface AnnonceRepository extends JpaRepository<Annonce, Long> {
                      @Param("rewardMin") Double rewardMin,
                      @Param("rewardMax") Double rewardMax,
                      Pageable pageable);
+
+       // Annonces écrites sans colonnes de recherche (données antérieures, insertions JDBC), par lots
+       @Query("SELECT a.id, a.holderName, a.holderFirstName, a.lossCity FROM Annonce a " +
+                     "WHERE a.id > :lastId AND a.holderSearch IS NULL ORDER BY a.id")
+       List<Object[]> findRowsWithoutSearchColumns(@Param("lastId") Long lastId, Pageable pageable);
+
+       // Chargement de l'index de recherche, par lots ordonnés sur l'identifiant
+       @Query("SELECT a.id, a.holderName, a.holderFirstName, a.lossCity, a.status FROM Annonce a " +
+                     "WHERE a.id > :lastId ORDER BY a.id")
+       List<Object[]> findSearchIndexRows(@Param("lastId") Long lastId, Pageable pageable);
+
+       // Chargement du moteur de rapprochement : annonces actives, par lots ordonnés sur l'identifiant
+       @Query("SELECT a.id, a.documentType, a.documentNumber, a.holderName, a.holderFirstName FROM Annonce a " +
+                     "WHERE a.id > :lastId AND a.status = :status ORDER BY a.id")
+       List<Object[]> findMatchingRows(@Param("lastId") Long lastId, @Param("status") AnnouncementStatus status,
+                     Pageable pageable);
 }
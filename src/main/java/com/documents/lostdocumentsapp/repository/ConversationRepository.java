@@ -0,0 +1,90 @@
+package com.documents.lostdocumentsapp.repository;
+
+import com.documents.lostdocumentsapp.dto.ConversationSummary;
+import com.documents.lostdocumentsapp.model.Conversation;
+import com.documents.lostdocumentsapp.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    @Query(value = "SELECT new com.documents.lostdocumentsapp.dto.ConversationSummary(" +
+            "p.id, p.firstName, p.lastName, c.announcementId, a.title, " +
+            "c.lastMessageId, c.lastMessageAt, c.lastMessagePreview, c.unreadCount) " +
+            "FROM Conversation c JOIN c.partner p LEFT JOIN Annonce a ON a.id = c.announcementId " +
+            "WHERE c.owner.id = :ownerId ORDER BY c.lastMessageAt DESC",
+            countQuery = "SELECT COUNT(c) FROM Conversation c WHERE c.owner.id = :ownerId")
+    Page<ConversationSummary> findInbox(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query("SELECT DISTINCT c.partner FROM Conversation c WHERE c.owner.id = :ownerId")
+    List<User> findPartners(@Param("ownerId") Long ownerId);
+
+    // Upsert atomique ; le dernier message n'avance que vers un identifiant plus récent
+    // (CASE plutôt que IF, propre à MySQL : la requête passe aussi sur H2 en mode MySQL)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "conversations"))
+    @Query(value = "INSERT INTO conversations (owner_id, partner_id, announcement_id, last_message_id, " +
+            "last_message_at, last_message_preview, unread_count) " +
+            "VALUES (:ownerId, :partnerId, :announcementId, :messageId, :sentAt, :preview, :unread) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "last_message_at = CASE WHEN VALUES(last_message_id) > last_message_id " +
+            "THEN VALUES(last_message_at) ELSE last_message_at END, " +
+            "last_message_preview = CASE WHEN VALUES(last_message_id) > last_message_id " +
+            "THEN VALUES(last_message_preview) ELSE last_message_preview END, " +
+            "last_message_id = GREATEST(last_message_id, VALUES(last_message_id)), " +
+            "unread_count = unread_count + VALUES(unread_count)", nativeQuery = true)
+    int upsertLastMessage(@Param("ownerId") Long ownerId,
+            @Param("partnerId") Long partnerId,
+            @Param("announcementId") Long announcementId,
+            @Param("messageId") Long messageId,
+            @Param("sentAt") LocalDateTime sentAt,
+            @Param("preview") String preview,
+            @Param("unread") int unread);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.unreadCount = CASE WHEN c.unreadCount > 0 THEN c.unreadCount - 1 ELSE 0 END " +
+            "WHERE c.owner.id = :ownerId AND c.partner.id = :partnerId AND c.announcementId = :announcementId")
+    int decrementUnread(@Param("ownerId") Long ownerId,
+            @Param("partnerId") Long partnerId,
+            @Param("announcementId") Long announcementId);
+
+    // Recalcule en une requête les non lus des conversations d'un utilisateur
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "conversations"))
+    @Query(value = "UPDATE conversations c SET c.unread_count = (" +
+            "SELECT COUNT(*) FROM messages m WHERE m.receiver_id = c.owner_id AND m.sender_id = c.partner_id " +
+            "AND m.announcement_id = c.announcement_id AND m.is_read = FALSE) " +
+            "WHERE c.owner_id = :ownerId AND c.unread_count > 0", nativeQuery = true)
+    int recomputeUnread(@Param("ownerId") Long ownerId);
+
+    // Construction initiale depuis l'historique des messages (deux lignes par fil)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "conversations"))
+    @Query(value = "INSERT INTO conversations (owner_id, partner_id, announcement_id, last_message_id, " +
+            "last_message_at, unread_count) " +
+            "SELECT t.owner_id, t.partner_id, t.announcement_id, MAX(t.id), MAX(t.created_at), SUM(t.unread) " +
+            "FROM (SELECT receiver_id AS owner_id, sender_id AS partner_id, announcement_id, id, created_at, " +
+            "CASE WHEN is_read = FALSE THEN 1 ELSE 0 END AS unread FROM messages " +
+            "UNION ALL SELECT sender_id, receiver_id, announcement_id, id, created_at, 0 FROM messages) t " +
+            "GROUP BY t.owner_id, t.partner_id, t.announcement_id", nativeQuery = true)
+    int backfillFromMessages();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "conversations"))
+    @Query(value = "UPDATE conversations c JOIN messages m ON m.id = c.last_message_id " +
+            "SET c.last_message_preview = LEFT(m.content, 200) WHERE c.last_message_preview IS NULL",
+            nativeQuery = true)
+    int backfillPreviews();
+}
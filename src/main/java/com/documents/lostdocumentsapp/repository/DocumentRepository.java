@@ -2,6 +2,8 @@ package com.documents.lostdocumentsapp.repository;
 
 import com.documents.lostdocumentsapp.model.Document;
 import com.documents.lostdocumentsapp.model.DocumentType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -38,8 +40,9 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
             "LOWER(d.holderName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
             "LOWER(d.holderFirstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
             "LOWER(d.birthPlace) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(d.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<Document> findBySearchTerm(@Param("searchTerm") String searchTerm);
+            "LOWER(d.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+            "ORDER BY d.id DESC")
+    Slice<Document> findBySearchTerm(@Param("searchTerm") String searchTerm, Pageable pageable);
 
     // Compter les documents par type
     @Query("SELECT d.typeDocument, COUNT(d) FROM Document d GROUP BY d.typeDocument ORDER BY COUNT(d) DESC")
@@ -50,4 +53,15 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
 
     // Recherche par description
     List<Document> findByDescriptionContainingIgnoreCase(String description);
-}
\ No newline at end of file
+
+    // Chargement du moteur de rapprochement : documents trouvés, c'est-à-dire sans annonce de perte
+    @Query("SELECT d.id, d.typeDocument, d.nomDocument, d.holderName, d.holderFirstName FROM Document d " +
+            "WHERE d.id > :lastId AND NOT EXISTS (SELECT a.id FROM Annonce a WHERE a.document = d) " +
+            "ORDER BY d.id")
+    List<Object[]> findFoundDocumentMatchingRows(@Param("lastId") Long lastId, Pageable pageable);
+
+    // Chargement de l'index de recherche, par lots ordonnés sur l'identifiant
+    @Query("SELECT d.id, d.holderName, d.holderFirstName, d.nomDocument, d.typeDocument, d.birthPlace, " +
+            "d.description FROM Document d WHERE d.id > :lastId ORDER BY d.id")
+    List<Object[]> findSearchIndexRows(@Param("lastId") Long lastId, Pageable pageable);
+}
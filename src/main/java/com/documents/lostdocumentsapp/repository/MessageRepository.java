@@ -2,11 +2,19 @@ package com.documents.lostdocumentsapp.repository;
 
 import com.documents.lostdocumentsapp.model.Message;
 import com.documents.lostdocumentsapp.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -20,24 +28,52 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     
     List<Message> findByReceiverAndIsReadFalse(User receiver);
     
-    @Query("SELECT m FROM Message m WHERE " +
+    @Query(value = "SELECT m FROM Message m WHERE " +
            "(m.sender = :user OR m.receiver = :user) " +
-           "ORDER BY m.createdAt DESC")
-    List<Message> findByUserConversations(@Param("user") User user);
+           "ORDER BY m.createdAt DESC",
+           countQuery = "SELECT COUNT(m) FROM Message m WHERE m.sender = :user OR m.receiver = :user")
+    Page<Message> findByUserConversations(@Param("user") User user, Pageable pageable);
     
-    @Query("SELECT m FROM Message m WHERE " +
-           "((m.sender = :user1 AND m.receiver = :user2) OR " +
-           "(m.sender = :user2 AND m.receiver = :user1)) " +
-           "ORDER BY m.createdAt ASC")
-    List<Message> findConversationBetweenUsers(@Param("user1") User user1, @Param("user2") User user2);
+    // Historique d'un fil, du plus récent au plus ancien, servi par l'index
+    // (participant_low, participant_high, created_at)
+    @Query("SELECT m FROM Message m WHERE m.participantLow = :low AND m.participantHigh = :high " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findConversationLatest(@Param("low") Long low, @Param("high") Long high, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.participantLow = :low AND m.participantHigh = :high AND " +
+           "(m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findConversationBefore(@Param("low") Long low,
+                                         @Param("high") Long high,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    // Marque comme lus les messages reçus jusqu'à :upTo inclus, par lots validés séparément
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "messages"))
+    @Transactional
+    @Query(value = "UPDATE messages SET is_read = TRUE, updated_at = :now " +
+           "WHERE receiver_id = :receiverId AND is_read = FALSE AND id <= :upTo LIMIT :limit", nativeQuery = true)
+    int markReadBatch(@Param("receiverId") Long receiverId,
+                      @Param("upTo") Long upTo,
+                      @Param("now") LocalDateTime now,
+                      @Param("limit") int limit);
+
+    // Renseigne la paire normalisée des messages antérieurs à la colonne, par lots
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "messages"))
+    @Transactional
+    @Query(value = "UPDATE messages SET participant_low = LEAST(sender_id, receiver_id), " +
+           "participant_high = GREATEST(sender_id, receiver_id) " +
+           "WHERE participant_low IS NULL LIMIT :limit", nativeQuery = true)
+    int backfillParticipants(@Param("limit") int limit);
     
     @Query("SELECT COUNT(m) FROM Message m WHERE m.receiver = :receiver AND m.isRead = false")
     Long countUnreadMessagesByReceiver(@Param("receiver") User receiver);
-    
-    @Query("SELECT DISTINCT m.sender FROM Message m WHERE m.receiver = :receiver")
-    List<User> findDistinctSendersByReceiver(@Param("receiver") User receiver);
-    
-    @Query("SELECT DISTINCT m.receiver FROM Message m WHERE m.sender = :sender")
-    List<User> findDistinctReceiversBySender(@Param("sender") User sender);
+
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.receiver.id = :receiverId AND m.isRead = false")
+    long countUnreadMessagesByReceiverId(@Param("receiverId") Long receiverId);
+
 }
 
@@ -1,6 +1,8 @@
 package com.documents.lostdocumentsapp.repository;
 
 import com.documents.lostdocumentsapp.model.Personne;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -38,8 +40,9 @@ public interface PersonneRepository extends JpaRepository<Personne, Long> {
            "LOWER(p.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(p.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(p.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(p.city) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<Personne> findBySearchTerm(@Param("searchTerm") String searchTerm);
+           "LOWER(p.city) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+           "ORDER BY p.id DESC")
+    Slice<Personne> findBySearchTerm(@Param("searchTerm") String searchTerm, Pageable pageable);
     
     // Compter les personnes par ville
     @Query("SELECT p.city, COUNT(p) FROM Personne p GROUP BY p.city ORDER BY COUNT(p) DESC")
@@ -47,4 +50,8 @@ public interface PersonneRepository extends JpaRepository<Personne, Long> {
     
     // Compter les personnes vérifiées
     Long countByIsVerified(Boolean isVerified);
-}
\ No newline at end of file
+    
+    // Chargement de l'index de recherche, par lots ordonnés sur l'identifiant
+    @Query("SELECT p.id, p.firstName, p.lastName, p.email, p.city FROM Personne p WHERE p.id > :lastId ORDER BY p.id")
+    List<Object[]> findSearchIndexRows(@Param("lastId") Long lastId, Pageable pageable);
+}
@@ -1,8 +1,11 @@
 package com.documents.lostdocumentsapp.repository;
 
 import com.documents.lostdocumentsapp.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,6 +14,8 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    // Résolution de l'utilisateur courant à chaque requête : résultat gardé dans le cache de requêtes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
     
     Optional<User> findByPhone(String phone);
@@ -27,5 +32,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT u FROM User u WHERE u.isActive = true AND u.isVerified = true")
     java.util.List<User> findActiveVerifiedUsers();
+
+    @Query("SELECT COUNT(u) FROM User u WHERE u.isActive = true AND u.isVerified = true")
+    long countActiveVerifiedUsers();
 }
 
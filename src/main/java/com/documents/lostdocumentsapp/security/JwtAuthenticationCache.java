@@ -0,0 +1,131 @@
+package com.documents.lostdocumentsapp.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache borné token → utilisateur authentifié, pour éviter de revérifier la
+ * signature et de relire l'utilisateur en base à chaque requête.
+ *
+ * <p>
+ * Les entrées sont indexées par l'empreinte SHA-256 du token (le token
+ * lui-même n'est pas conservé) et expirent au plus tôt entre la fin de validité
+ * du token et {@code app.jwt.cache.ttl-seconds}. Les modifications d'un
+ * utilisateur invalident ses entrées via {@link #invalidateUser(String)}.
+ * Les succès et échecs de lecture sont comptés dans {@code jwt.cache.requests}
+ * (étiquette {@code result}).
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    @Value("${app.jwt.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.jwt.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    private record Entry(CustomUserDetails principal, String username, long expiresAtMillis) {
+
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+
+    @PostConstruct
+    void initMetrics() {
+        hitCounter = Counter.builder("jwt.cache.requests")
+                .tag("result", "hit")
+                .description("Lectures du cache d'authentification JWT")
+                .register(meterRegistry);
+        missCounter = Counter.builder("jwt.cache.requests")
+                .tag("result", "miss")
+                .description("Lectures du cache d'authentification JWT")
+                .register(meterRegistry);
+    }
+
+    public CustomUserDetails get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCounter.increment();
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key, entry);
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return entry.principal();
+    }
+
+    public void put(String token, CustomUserDetails principal, Date tokenExpiration) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlSeconds * 1000L;
+        if (tokenExpiration != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(hash(token), new Entry(principal, principal.getUsername(), expiresAt));
+    }
+
+    public void invalidateUser(String username) {
+        if (username != null) {
+            entries.values().removeIf(entry -> username.equals(entry.username()));
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Purge les entrées expirées puis, si besoin, environ 10 % des entrées restantes
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        int toRemove = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (toRemove-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
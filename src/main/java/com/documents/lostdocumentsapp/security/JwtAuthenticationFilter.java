@@ -8,14 +8,19 @@ import java.util.stream.Collectors;
 import com.documents.lostdocumentsapp.model.User;
 import com.documents.lostdocumentsapp.service.UserService;
 import com.documents.lostdocumentsapp.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -25,54 +30,95 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    // Seul chemin où le token est accepté en paramètre (EventSource n'envoie pas d'en-tête)
+    private static final String STREAM_PATH = "/api/messages/stream";
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private JwtAuthenticationCache jwtAuthenticationCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Latence de l'authentification JWT selon son issue
+    private Timer cachedTimer;
+    private Timer verifiedTimer;
+    private Timer rejectedTimer;
+
+    @PostConstruct
+    void initMetrics() {
+        cachedTimer = authenticationTimer("cached");
+        verifiedTimer = authenticationTimer("verified");
+        rejectedTimer = authenticationTimer("rejected");
+    }
+
+    private Timer authenticationTimer(String outcome) {
+        return Timer.builder("jwt.authentication")
+                .tag("outcome", outcome)
+                .description("Durée de validation du token JWT")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
 
-        final String authHeader = request.getHeader("Authorization");
-        final String jwt;
+        final String jwt = resolveToken(request);
         final String username;
 
-        // Vérifie que le header Authorization est bien présent et commence par "Bearer
-        // "
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        // Sans token, la requête continue sans authentification
+        if (jwt == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        // Extrait le token JWT
-        jwt = authHeader.substring(7);
-
+        Timer.Sample sample = null;
+        Timer outcomeTimer = rejectedTimer;
         try {
-            username = jwtUtil.extractUsername(jwt);
-
-            // Si l'utilisateur est identifié et non encore authentifié dans le contexte
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                User user = (User) userService.loadUserByUsername(username);
-
-                // Vérifie que le token est valide
-                if (jwtUtil.validateToken(jwt, user)) {
-                    // Extrait les autorités du token JWT
-                    List<String> authorities = jwtUtil.extractAuthorities(jwt);
-                    List<GrantedAuthority> grantedAuthorities = authorities.stream()
-                            .map(role -> new SimpleGrantedAuthority(role))
-                            .collect(Collectors.toList());
-
-                    System.out.println("🔐 JWT Authentication - Username: " + username);
-                    System.out.println("🔐 JWT Authentication - Authorities from token: " + authorities);
-                    System.out.println("🔐 JWT Authentication - GrantedAuthorities: " + grantedAuthorities);
-                    System.out.println("🔐 JWT Authentication - User roles from DB: " + user.getRoles());
-
-                    // Utilise CustomUserDetails pour fusionner les rôles du token
-                    CustomUserDetails customUserDetails = new CustomUserDetails(user, grantedAuthorities);
+            // Si l'utilisateur n'est pas encore authentifié dans le contexte
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                sample = Timer.start(meterRegistry);
+                CustomUserDetails customUserDetails = jwtAuthenticationCache.get(jwt);
+
+                if (customUserDetails != null) {
+                    outcomeTimer = cachedTimer;
+                } else {
+                    // Une seule analyse vérifie la signature et l'expiration
+                    Claims claims = jwtUtil.parseClaims(jwt);
+                    username = claims.getSubject();
+
+                    if (username != null) {
+                        User user = (User) userService.loadUserByUsername(username);
+
+                        if (user.isEnabled()) {
+                            // Extrait les autorités du token JWT
+                            List<String> authorities = jwtUtil.extractAuthorities(claims);
+                            List<GrantedAuthority> grantedAuthorities = authorities.stream()
+                                    .map(role -> new SimpleGrantedAuthority(role))
+                                    .collect(Collectors.toList());
+
+                            // Un seul événement par requête, échantillonné (DebugSamplingTurboFilter)
+                            log.debug("Authentification JWT de {} : autorités du token {}, rôles en base {}",
+                                    username, authorities, user.getRoles());
+
+                            // Utilise CustomUserDetails pour fusionner les rôles du token
+                            customUserDetails = new CustomUserDetails(user, grantedAuthorities);
+                            jwtAuthenticationCache.put(jwt, customUserDetails, claims.getExpiration());
+                            outcomeTimer = verifiedTimer;
+                        }
+                    }
+                }
 
+                if (customUserDetails != null) {
                     // Injecte l'utilisateur et ses rôles dans le contexte de sécurité
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             customUserDetails,
@@ -86,10 +132,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         } catch (Exception e) {
             // Token invalide ou expiré, continuer sans authentification
-            System.out.println("JWT validation failed: " + e.getMessage());
+            log.debug("Validation du token JWT échouée : {}", e.getMessage());
+        } finally {
+            if (sample != null) {
+                sample.stop(outcomeTimer);
+            }
         }
 
         // Continue la chaîne de filtres
         filterChain.doFilter(request, response);
     }
+
+    // En-tête "Bearer ..." ou, pour le flux temps réel uniquement, paramètre "token"
+    private String resolveToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        if (STREAM_PATH.equals(request.getRequestURI())) {
+            String token = request.getParameter("token");
+            if (token != null && !token.isBlank()) {
+                return token;
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,216 @@
+package com.documents.lostdocumentsapp.service;
+
+import com.documents.lostdocumentsapp.dto.ExpiryJob;
+import com.documents.lostdocumentsapp.model.AnnouncementStatus;
+import com.documents.lostdocumentsapp.model.JobLease;
+import com.documents.lostdocumentsapp.repository.AnnonceRepository;
+import com.documents.lostdocumentsapp.repository.JobLeaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Passage en EXPIRED des annonces échues par lots ensemblistes
+ * ({@code UPDATE ... LIMIT n}), sans charger les entités.
+ *
+ * <p>
+ * Chaque exécution prend d'abord le verrou {@value #LEASE_NAME} dans la table
+ * {@code job_leases} : plusieurs nœuds peuvent planifier la tâche, un seul la
+ * déroule à la fois. Chaque lot est validé dans sa propre transaction.
+ */
+@Service
+public class AnnonceExpiryService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnonceExpiryService.class);
+
+    static final String LEASE_NAME = "annonce-expiry";
+
+    private static final int MAX_TRACKED_JOBS = 50;
+
+    @Autowired
+    private AnnonceRepository annonceRepository;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private AnnonceStatisticsService annonceStatisticsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.expiry.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.expiry.lease-seconds:300}")
+    private long leaseSeconds;
+
+    private final String nodeId = resolveNodeId();
+    private final Map<String, ExpiryJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "annonce-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Counter expiredCounter;
+    private Timer runTimer;
+
+    @PostConstruct
+    void initMetrics() {
+        expiredCounter = Counter.builder("annonces.expiry.rows")
+                .description("Annonces passées en EXPIRED")
+                .register(meterRegistry);
+        runTimer = Timer.builder("annonces.expiry.run")
+                .description("Durée d'une exécution de l'expiration")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.expiry.interval-ms:300000}",
+            initialDelayString = "${app.expiry.initial-delay-ms:60000}")
+    public void scheduledRun() {
+        run(newJob());
+    }
+
+    /**
+     * Lance l'expiration en arrière-plan et retourne immédiatement le suivi.
+     */
+    public ExpiryJob triggerAsync() {
+        ExpiryJob job = newJob();
+        executor.submit(() -> run(job));
+        return job;
+    }
+
+    /**
+     * Exécution synchrone ; retourne le nombre d'annonces expirées.
+     */
+    public long expireNow() {
+        ExpiryJob job = newJob();
+        run(job);
+        return job.getExpiredCount();
+    }
+
+    public Optional<ExpiryJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void run(ExpiryJob job) {
+        job.setStartedAt(LocalDateTime.now());
+        if (!running.compareAndSet(false, true)) {
+            job.setState(ExpiryJob.State.SKIPPED);
+            job.setFinishedAt(LocalDateTime.now());
+            return;
+        }
+        try {
+            if (acquireLease()) {
+                expireInBatches(job);
+            } else {
+                job.setState(ExpiryJob.State.SKIPPED);
+                job.setFinishedAt(LocalDateTime.now());
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void expireInBatches(ExpiryJob job) {
+        job.setState(ExpiryJob.State.RUNNING);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            int affected;
+            do {
+                affected = annonceRepository.expireBatch(LocalDateTime.now(), batchSize);
+                job.setExpiredCount(job.getExpiredCount() + affected);
+                job.setBatches(job.getBatches() + 1);
+                expiredCounter.increment(affected);
+                annonceStatisticsService.recordStatusChange(AnnouncementStatus.ACTIVE, AnnouncementStatus.EXPIRED,
+                        affected);
+                // Prolonge le verrou entre deux lots ; s'il a été perdu, un autre nœud prend le relais
+                if (affected == batchSize && !acquireLease()) {
+                    break;
+                }
+            } while (affected == batchSize);
+            job.setState(ExpiryJob.State.COMPLETED);
+            if (job.getExpiredCount() > 0) {
+                log.info("Expiration {} : {} annonces en {} lots", job.getJobId(), job.getExpiredCount(),
+                        job.getBatches());
+            }
+        } catch (RuntimeException e) {
+            job.setState(ExpiryJob.State.FAILED);
+            job.setError(e.getMessage());
+            log.error("Échec de l'expiration {}", job.getJobId(), e);
+        } finally {
+            sample.stop(runTimer);
+            job.setFinishedAt(LocalDateTime.now());
+            jobLeaseRepository.release(LEASE_NAME, nodeId);
+        }
+    }
+
+    private boolean acquireLease() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plusSeconds(leaseSeconds);
+        if (jobLeaseRepository.tryAcquire(LEASE_NAME, nodeId, now, until) == 1) {
+            return true;
+        }
+        if (!jobLeaseRepository.existsById(LEASE_NAME)) {
+            try {
+                jobLeaseRepository.saveAndFlush(new JobLease(LEASE_NAME));
+            } catch (DataIntegrityViolationException ignored) {
+                // Créée en parallèle par un autre nœud
+            }
+            return jobLeaseRepository.tryAcquire(LEASE_NAME, nodeId, now, until) == 1;
+        }
+        return false;
+    }
+
+    private ExpiryJob newJob() {
+        ExpiryJob job = new ExpiryJob(UUID.randomUUID().toString());
+        jobs.put(job.getJobId(), job);
+        if (jobs.size() > MAX_TRACKED_JOBS) {
+            // Oublie les exécutions terminées les plus anciennes
+            jobs.values().stream()
+                    .filter(j -> j.getFinishedAt() != null)
+                    .sorted(Comparator.comparing(ExpiryJob::getFinishedAt))
+                    .limit(jobs.size() - MAX_TRACKED_JOBS)
+                    .toList()
+                    .forEach(j -> jobs.remove(j.getJobId()));
+        }
+        return job;
+    }
+
+    private static String resolveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,82 @@
+package com.documents.lostdocumentsapp.service;
+
+import com.documents.lostdocumentsapp.model.Annonce;
+import com.documents.lostdocumentsapp.repository.AnnonceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renseigne au démarrage les colonnes {@code holder_search} et
+ * {@code city_search} des annonces écrites sans elles (lignes antérieures à
+ * ces colonnes, insertions JDBC du générateur de charge). Les écritures JPA
+ * les calculent elles-mêmes ({@link Annonce#searchForm}).
+ *
+ * <p>
+ * L'UPDATE ne touche que les lignes encore vides : une modification
+ * concurrente, déjà normalisée, n'est pas écrasée. Il passe à côté
+ * d'Hibernate, mais ces colonnes ne sont lues que par les requêtes.
+ */
+@Component
+public class AnnonceSearchColumnsBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnonceSearchColumnsBackfill.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE annonces SET holder_search = ?, city_search = ? WHERE id = ? AND holder_search IS NULL";
+
+    @Autowired
+    private AnnonceRepository annonceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.search.index.warmup-batch-size:5000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread backfill = new Thread(this::backfill, "annonce-search-columns-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    void backfill() {
+        long start = System.currentTimeMillis();
+        long lastId = 0L;
+        int updated = 0;
+        try {
+            List<Object[]> rows;
+            do {
+                rows = annonceRepository.findRowsWithoutSearchColumns(lastId, PageRequest.of(0, batchSize));
+                List<Object[]> batch = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    batch.add(new Object[] {
+                            Annonce.searchForm((String) row[1], (String) row[2]),
+                            Annonce.searchForm((String) row[3]),
+                            lastId });
+                }
+                if (!batch.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+                    updated += batch.size();
+                }
+            } while (rows.size() == batchSize);
+            if (updated > 0) {
+                log.info("Colonnes de recherche renseignées pour {} annonces en {} ms",
+                        updated, System.currentTimeMillis() - start);
+            }
+        } catch (RuntimeException e) {
+            log.error("Échec du renseignement des colonnes de recherche des annonces", e);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.documents.lostdocumentsapp.service;
+
+import com.documents.lostdocumentsapp.model.Annonce;
+import com.documents.lostdocumentsapp.model.AnnouncementStatus;
+import com.documents.lostdocumentsapp.repository.AnnonceRepository;
+import com.documents.lostdocumentsapp.util.NameIndex;
+import com.documents.lostdocumentsapp.util.TextNormalizer;
+import com.documents.lostdocumentsapp.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Index inversé en mémoire des annonces (nom du titulaire et ville de perte).
+ *
+ * <p>
+ * Les termes sont normalisés par {@link TextNormalizer}. Les villes sont
+ * recherchées par préfixe ; les noms passent par un {@link NameIndex}, qui
+ * tolère les variantes de graphie et classe les résultats ; seules les annonces
+ * actives y figurent. Cela remplace les
+ * {@code LIKE '%x%'} sur la table {@code annonces}. L'index est chargé au démarrage puis maintenu après chaque
+ * commit ; tant qu'il n'est pas prêt, ou si une requête est trop peu sélective,
+ * les méthodes de recherche renvoient {@code null} et l'appelant se rabat sur
+ * SQL, qui applique la même recherche par début de mot
+ * ({@code AnnonceRepository.CITY_WORD_PREFIXES}).
+ */
+@Component
+public class AnnonceSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnonceSearchIndex.class);
+
+    @Autowired
+    private AnnonceRepository annonceRepository;
+
+    @Value("${app.search.index.warmup-batch-size:5000}")
+    private int warmupBatchSize;
+
+    @Value("${app.search.index.max-candidates:10000}")
+    private int maxCandidates;
+
+    private final NameIndex holderIndex = new NameIndex();
+    private final TokenIndex cityIndex = new TokenIndex();
+    private final Map<Long, IndexedTerms> termsById = new ConcurrentHashMap<>();
+    private final Set<Long> removedDuringWarmup = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread warmup = new Thread(this::loadAll, "annonce-index-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Identifiants des annonces actives dont le nom ou le prénom du titulaire
+     * correspond à chacun des mots recherchés, du plus au moins pertinent.
+     */
+    public List<Long> findByHolder(String holderName) {
+        return ready ? holderIndex.search(holderName, maxCandidates) : null;
+    }
+
+    public Set<Long> findByCity(String city) {
+        return search(cityIndex, city);
+    }
+
+    // Indexe l'annonce une fois la transaction validée
+    public void indexAfterCommit(Annonce annonce) {
+        Long id = annonce.getId();
+        IndexedTerms terms = IndexedTerms.of(annonce);
+        TransactionHooks.afterCommit(() -> put(id, terms));
+    }
+
+    public void removeAfterCommit(Long annonceId) {
+        TransactionHooks.afterCommit(() -> remove(annonceId));
+    }
+
+    /**
+     * Retire de l'index des noms des annonces qui ne sont plus actives ;
+     * l'expiration en lot ({@link AnnonceExpiryService}) ne passe pas par
+     * {@link #indexAfterCommit}, la recherche les écarte donc à la rencontre.
+     */
+    public void removeInactiveHolders(Collection<Long> annonceIds) {
+        for (Long id : annonceIds) {
+            termsById.computeIfPresent(id, (key, terms) -> new IndexedTerms(terms.holder, terms.city, false));
+            holderIndex.remove(id);
+        }
+    }
+
+    private Set<Long> search(TokenIndex index, String query) {
+        if (!ready) {
+            return null;
+        }
+        List<String> tokens = TextNormalizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        Set<Long> result = null;
+        for (String token : tokens) {
+            Set<Long> matches = index.matchPrefix(token, maxCandidates);
+            if (matches == null) {
+                return null;
+            }
+            if (result == null) {
+                result = matches;
+            } else {
+                result.retainAll(matches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void put(Long id, IndexedTerms terms) {
+        IndexedTerms previous = termsById.put(id, terms);
+        if (previous != null) {
+            cityIndex.remove(id, previous.city);
+        }
+        if (terms.active) {
+            holderIndex.put(id, terms.holder);
+        } else {
+            holderIndex.remove(id);
+        }
+        cityIndex.add(id, terms.city);
+    }
+
+    private void remove(Long id) {
+        if (!ready) {
+            removedDuringWarmup.add(id);
+        }
+        IndexedTerms previous = termsById.remove(id);
+        if (previous != null) {
+            holderIndex.remove(id);
+            cityIndex.remove(id, previous.city);
+        }
+    }
+
+    private void loadAll() {
+        long start = System.currentTimeMillis();
+        long lastId = 0L;
+        int loaded = 0;
+        try {
+            List<Object[]> rows;
+            do {
+                rows = annonceRepository.findSearchIndexRows(lastId, PageRequest.of(0, warmupBatchSize));
+                for (Object[] row : rows) {
+                    Long id = (Long) row[0];
+                    lastId = id;
+                    // Les écritures arrivées pendant le chargement sont plus récentes
+                    if (termsById.containsKey(id) || removedDuringWarmup.contains(id)) {
+                        continue;
+                    }
+                    IndexedTerms terms = new IndexedTerms(
+                            tokens((String) row[1], (String) row[2]),
+                            tokens((String) row[3]),
+                            row[4] == AnnouncementStatus.ACTIVE);
+                    if (termsById.putIfAbsent(id, terms) == null) {
+                        if (terms.active) {
+                            holderIndex.put(id, terms.holder);
+                        }
+                        cityIndex.add(id, terms.city);
+                        loaded++;
+                    }
+                }
+            } while (rows.size() == warmupBatchSize);
+            ready = true;
+            removedDuringWarmup.clear();
+            log.info("Index de recherche des annonces prêt : {} annonces en {} ms",
+                    loaded, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Échec du chargement de l'index de recherche, repli sur SQL", e);
+        }
+    }
+
+    private static Set<String> tokens(String... values) {
+        Set<String> tokens = new HashSet<>();
+        for (String value : values) {
+            tokens.addAll(TextNormalizer.tokenize(value));
+        }
+        return tokens;
+    }
+
+    // La ville reste indexée quel que soit le statut : la recherche avancée filtre sur tous les statuts
+    private record IndexedTerms(Set<String> holder, Set<String> city, boolean active) {
+
+        static IndexedTerms of(Annonce annonce) {
+            return new IndexedTerms(
+                    tokens(annonce.getHolderName(), annonce.getHolderFirstName()),
+                    tokens(annonce.getLossCity()),
+                    annonce.getStatus() == AnnouncementStatus.ACTIVE);
+        }
+    }
+
+    /**
+     * Listes de postings par terme ; le vocabulaire trié permet la recherche
+     * par préfixe.
+     */
+    private static final class TokenIndex {
+
+        private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+        private final NavigableSet<String> vocabulary = new ConcurrentSkipListSet<>();
+
+        void add(Long id, Collection<String> tokens) {
+            for (String token : tokens) {
+                postings.compute(token, (key, ids) -> {
+                    Set<Long> target = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                    target.add(id);
+                    return target;
+                });
+                vocabulary.add(token);
+            }
+        }
+
+        void remove(Long id, Collection<String> tokens) {
+            for (String token : tokens) {
+                postings.computeIfPresent(token, (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        // null si le préfixe correspond à plus de {@code limit} annonces
+        Set<Long> matchPrefix(String prefix, int limit) {
+            Set<Long> result = new HashSet<>();
+            for (String term : vocabulary.subSet(prefix, true, prefix + Character.MAX_VALUE, false)) {
+                Set<Long> ids = postings.get(term);
+                if (ids == null) {
+                    continue;
+                }
+                result.addAll(ids);
+                if (result.size() > limit) {
+                    return null;
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.documents.lostdocumentsapp.service;
 
+import com.documents.lostdocumentsapp.dto.AnnonceSummary;
 import com.documents.lostdocumentsapp.dto.CreateAnnonceRequest;
+import com.documents.lostdocumentsapp.dto.CursorPage;
 import com.documents.lostdocumentsapp.model.Annonce;
 import com.documents.lostdocumentsapp.model.AnnouncementStatus;
 import com.documents.lostdocumentsapp.model.Document;
@@ -8,20 +10,45 @@ import com.documents.lostdocumentsapp.model.DocumentType;
 import com.documents.lostdocumentsapp.model.User;
 import com.documents.lostdocumentsapp.repository.AnnonceRepository;
 import com.documents.lostdocumentsapp.repository.DocumentRepository;
+import com.documents.lostdocumentsapp.util.TextNormalizer;
+import com.documents.lostdocumentsapp.util.TransactionHooks;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
+@Timed("service.calls")
 public class AnnonceService {
 
+    private static final Logger log = LoggerFactory.getLogger(AnnonceService.class);
+
     @Autowired
     private AnnonceRepository annonceRepository;
 
@@ -31,6 +58,40 @@ public class AnnonceService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AnnonceSearchIndex annonceSearchIndex;
+
+    @Autowired
+    private AnnonceViewCounter annonceViewCounter;
+
+    @Autowired
+    private AnnonceExpiryService annonceExpiryService;
+
+    @Autowired
+    private AnnonceStatisticsService annonceStatisticsService;
+
+    @Autowired
+    private DocumentMatchingService documentMatchingService;
+
+    @Autowired
+    private DocumentSearchIndex documentSearchIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.annonces.status-update.max-attempts:3}")
+    private int statusUpdateMaxAttempts;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     public Annonce createAnnonceFromRequest(Long userId, CreateAnnonceRequest request) {
         User user = userService.getUserById(userId);
 
@@ -55,6 +116,7 @@ public class AnnonceService {
 
         // Sauvegarder le document
         Document savedDocument = documentRepository.save(document);
+        documentSearchIndex.indexAfterCommit(savedDocument);
 
         // Créer l'annonce
         Annonce announcement = new Annonce();
@@ -97,13 +159,13 @@ public class AnnonceService {
 
         // Sauvegarder l'annonce
         Annonce savedAnnouncement = annonceRepository.save(announcement);
+        annonceSearchIndex.indexAfterCommit(savedAnnouncement);
+        annonceStatisticsService.recordChangeAfterCommit(null, AnnonceStatisticsService.Key.of(savedAnnouncement));
+        documentMatchingService.matchNewAnnonce(savedAnnouncement);
 
-        // Debug: Afficher les informations sauvegardées
-        System.out.println("Annonce créée avec ID: " + savedAnnouncement.getId());
-        System.out.println("Statut: " + savedAnnouncement.getStatus());
-        System.out.println("Document Type: " + savedAnnouncement.getDocumentType());
-        System.out.println("Document Number: " + savedAnnouncement.getDocumentNumber());
-        System.out.println("Holder Name: " + savedAnnouncement.getHolderName());
+        log.debug("Annonce {} créée : statut {}, document {} n° {}, titulaire {}", savedAnnouncement.getId(),
+                savedAnnouncement.getStatus(), savedAnnouncement.getDocumentType(),
+                savedAnnouncement.getDocumentNumber(), savedAnnouncement.getHolderName());
 
         return savedAnnouncement;
     }
@@ -113,6 +175,7 @@ public class AnnonceService {
 
         // Sauvegarder le document d'abord
         Document savedDocument = documentRepository.save(announcement.getDocument());
+        documentSearchIndex.indexAfterCommit(savedDocument);
         announcement.setDocument(savedDocument);
 
         // Synchroniser les champs embarqués avec le document
@@ -131,12 +194,23 @@ public class AnnonceService {
             announcement.setExpiresAt(LocalDateTime.now().plusDays(30));
         }
 
-        return annonceRepository.save(announcement);
+        Annonce savedAnnouncement = annonceRepository.save(announcement);
+        annonceSearchIndex.indexAfterCommit(savedAnnouncement);
+        annonceStatisticsService.recordChangeAfterCommit(null, AnnonceStatisticsService.Key.of(savedAnnouncement));
+        documentMatchingService.matchNewAnnonce(savedAnnouncement);
+        return savedAnnouncement;
     }
 
-    public Annonce updateAnnonce(Long announcementId, Annonce announcementDetails) {
-        Annonce announcement = annonceRepository.findById(announcementId)
-                .orElseThrow(() -> new RuntimeException("Annonce non trouvée"));
+    /**
+     * Met à jour une annonce pour le compte de son propriétaire ; l'annonce est
+     * lue une seule fois, dans la transaction qui l'écrit.
+     *
+     * @throws EntityNotFoundException si l'annonce n'existe pas
+     * @throws AccessDeniedException si l'utilisateur n'en est pas le propriétaire
+     */
+    public Annonce updateAnnonce(Long announcementId, Long ownerId, Annonce announcementDetails) {
+        Annonce announcement = findOwnedAnnonce(announcementId, ownerId);
+        AnnonceStatisticsService.Key before = AnnonceStatisticsService.Key.of(announcement);
 
         // Mettre à jour le document
         Document document = announcement.getDocument();
@@ -149,6 +223,7 @@ public class AnnonceService {
         document.setDescription(announcementDetails.getDocument().getDescription());
         document.setDocumentImage(announcementDetails.getDocument().getDocumentImage());
         document.setUpdatedAt(LocalDateTime.now());
+        documentSearchIndex.indexAfterCommit(document);
 
         // Mettre à jour l'annonce
         announcement.setTitle(announcementDetails.getTitle());
@@ -168,7 +243,11 @@ public class AnnonceService {
         announcement.setHolderFirstName(document.getHolderFirstName());
         announcement.setUpdatedAt(LocalDateTime.now());
 
-        return annonceRepository.save(announcement);
+        Annonce savedAnnouncement = annonceRepository.save(announcement);
+        annonceSearchIndex.indexAfterCommit(savedAnnouncement);
+        annonceStatisticsService.recordChangeAfterCommit(before, AnnonceStatisticsService.Key.of(savedAnnouncement));
+        documentMatchingService.indexAnnonceAfterCommit(savedAnnouncement);
+        return savedAnnouncement;
     }
 
     public Annonce getAnnonceById(Long announcementId) {
@@ -176,126 +255,335 @@ public class AnnonceService {
                 .orElseThrow(() -> new RuntimeException("Annonce non trouvée"));
     }
 
+    /**
+     * Charge l'annonce pour affichage et compte la vue. L'entité est chargée en
+     * lecture seule : le nombre de vues retourné inclut les incréments pas encore
+     * écrits par {@link AnnonceViewCounter} sans jamais être réécrit en base.
+     */
+    @Transactional(readOnly = true)
+    public Annonce viewAnnonce(Long announcementId) {
+        Annonce announcement = getAnnonceById(announcementId);
+        long pendingViews = annonceViewCounter.increment(announcementId);
+        int storedViews = announcement.getViews() != null ? announcement.getViews() : 0;
+        announcement.setViews((int) (storedViews + pendingViews));
+        return announcement;
+    }
+
     public Page<Annonce> getAllAnnonces(Pageable pageable) {
         return annonceRepository.findByStatusOrderByCreatedAtDesc(AnnouncementStatus.ACTIVE, pageable);
     }
 
+    /**
+     * Fil des annonces actives, du plus récent au plus ancien, paginé par
+     * curseur {@code <createdAt>,<id>} : le coût d'une page ne dépend pas de sa
+     * profondeur et aucun COUNT n'est exécuté.
+     *
+     * @throws IllegalArgumentException si le curseur est mal formé
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Annonce> getAnnonceFeed(String after, int size) {
+        // Une ligne de plus pour savoir s'il existe une page suivante
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Annonce> rows;
+        if (after == null || after.isBlank()) {
+            rows = annonceRepository.findFeedFirstPage(AnnouncementStatus.ACTIVE, limit);
+        } else {
+            int separator = after.lastIndexOf(',');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Curseur invalide");
+            }
+            try {
+                LocalDateTime createdAt = LocalDateTime.parse(after.substring(0, separator));
+                Long id = Long.valueOf(after.substring(separator + 1));
+                rows = annonceRepository.findFeedAfter(AnnouncementStatus.ACTIVE, createdAt, id, limit);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Curseur invalide");
+            }
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<Annonce> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Annonce last = content.get(content.size() - 1);
+            nextCursor = last.getCreatedAt() + "," + last.getId();
+        }
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
     public Page<Annonce> searchAnnonces(DocumentType type, String city, String postalCode,
             AnnouncementStatus status, Boolean urgent, Pageable pageable) {
         return annonceRepository.findWithFilters(type, city, postalCode, status, urgent, pageable);
     }
 
-    public Page<Annonce> searchAnnoncesWithFilters(DocumentType type, String city, String postalCode,
+    public Page<AnnonceSummary> searchAnnoncesWithFilters(DocumentType type, String city, String postalCode,
             AnnouncementStatus status, Boolean urgent, LocalDate lossDateFrom, LocalDate lossDateTo,
             Double rewardMin, Double rewardMax, Pageable pageable) {
-        return annonceRepository.findWithAdvancedFilters(type, city, postalCode, status, urgent,
-                lossDateFrom, lossDateTo, rewardMin, rewardMax, pageable);
+        if (city != null) {
+            Set<Long> ids = annonceSearchIndex.findByCity(city);
+            if (ids != null) {
+                if (ids.isEmpty()) {
+                    return Page.empty(pageable);
+                }
+                return annonceRepository.findWithAdvancedFiltersInIds(ids, type, postalCode, status, urgent,
+                        lossDateFrom, lossDateTo, rewardMin, rewardMax, pageable);
+            }
+        }
+        String[] cityWords = wordPrefixes(city);
+        return annonceRepository.findWithAdvancedFilters(type, city, cityWords[0], cityWords[1], cityWords[2],
+                postalCode, status, urgent, lossDateFrom, lossDateTo, rewardMin, rewardMax, pageable);
     }
 
-    public List<Annonce> getAnnoncesByUser(Long userId) {
-        User user = userService.getUserById(userId);
-        return annonceRepository.findByUser(user);
+    public Page<Annonce> getAnnoncesByUser(Long userId, Pageable pageable) {
+        return annonceRepository.findByUserId(userId, pageable);
     }
 
-    public List<Annonce> getUrgentAnnonces() {
-        return annonceRepository.findByUrgentTrue();
-    }
+    // Les listes publiques ne renvoient que les annonces actives, page par page
 
-    public List<Annonce> getAnnoncesByCity(String city) {
-        return annonceRepository.findByLossCityContainingIgnoreCase(city);
+    public Slice<AnnonceSummary> getUrgentAnnonces(Pageable pageable) {
+        return annonceRepository.findUrgentByStatus(AnnouncementStatus.ACTIVE, pageable);
     }
 
-    public List<Annonce> getAnnoncesByDocumentType(DocumentType type) {
-        return annonceRepository.findByDocumentTypeAndStatus(type, AnnouncementStatus.ACTIVE);
+    public Slice<AnnonceSummary> getAnnoncesByCity(String city, Pageable pageable) {
+        Set<Long> ids = annonceSearchIndex.findByCity(city);
+        if (ids != null) {
+            return ids.isEmpty() ? new SliceImpl<>(List.of(), pageable, false)
+                    : annonceRepository.findSummariesByIdInAndStatus(ids, AnnouncementStatus.ACTIVE, pageable);
+        }
+        String[] words = wordPrefixes(city);
+        return annonceRepository.findByLossCityWordPrefixesAndStatus(words[0], words[1], words[2],
+                AnnouncementStatus.ACTIVE, pageable);
     }
 
-    public List<Annonce> searchByDocumentHolder(String holderName) {
-        return annonceRepository.findByDocumentHolderNameContaining(holderName);
+    public Slice<AnnonceSummary> getAnnoncesByDocumentType(DocumentType type, Pageable pageable) {
+        return annonceRepository.findByDocumentTypeAndStatus(type, AnnouncementStatus.ACTIVE, pageable);
     }
 
-    public List<Annonce> getAnnoncesByDateRange(LocalDate startDate, LocalDate endDate) {
-        return annonceRepository.findByLossDateBetweenAndStatus(startDate, endDate, AnnouncementStatus.ACTIVE);
+    // Résultats de l'index classés par pertinence : la liste complète est parcourue par tranches
+    // jusqu'à couvrir la page demandée ; les annonces expirées en lot sont retirées de l'index au passage
+    public Slice<AnnonceSummary> searchByDocumentHolder(String holderName, Pageable pageable) {
+        List<Long> rankedIds = annonceSearchIndex.findByHolder(holderName);
+        if (rankedIds != null) {
+            int wanted = (int) Math.min(pageable.getOffset() + pageable.getPageSize() + 1, Integer.MAX_VALUE);
+            List<AnnonceSummary> ranked = new ArrayList<>();
+            List<Long> inactive = new ArrayList<>();
+            for (int from = 0; from < rankedIds.size() && ranked.size() < wanted; from += wanted) {
+                List<Long> chunk = rankedIds.subList(from, Math.min(from + wanted, rankedIds.size()));
+                Map<Long, AnnonceSummary> active = new HashMap<>();
+                annonceRepository.findSummariesByIdInAndStatus(chunk, AnnouncementStatus.ACTIVE, Pageable.unpaged())
+                        .forEach(summary -> active.put(summary.getId(), summary));
+                for (Long id : chunk) {
+                    AnnonceSummary summary = active.get(id);
+                    if (summary != null) {
+                        ranked.add(summary);
+                    } else {
+                        inactive.add(id);
+                    }
+                }
+            }
+            if (!inactive.isEmpty()) {
+                annonceSearchIndex.removeInactiveHolders(inactive);
+            }
+            int from = (int) Math.min(pageable.getOffset(), ranked.size());
+            int to = Math.min(from + pageable.getPageSize(), ranked.size());
+            return new SliceImpl<>(ranked.subList(from, to), pageable, ranked.size() > to);
+        }
+        String[] words = wordPrefixes(holderName);
+        return annonceRepository.findByHolderWordPrefixesAndStatus(words[0], words[1], words[2],
+                AnnouncementStatus.ACTIVE, pageable);
     }
 
-    public Annonce resolveAnnonce(Long announcementId) {
-        Annonce announcement = annonceRepository.findById(announcementId)
-                .orElseThrow(() -> new RuntimeException("Annonce non trouvée"));
-
-        announcement.setStatus(AnnouncementStatus.RESOLVED);
-        announcement.setResolvedAt(LocalDateTime.now());
-        announcement.setUpdatedAt(LocalDateTime.now());
-
-        return annonceRepository.save(announcement);
+    // Mots recherchés pour le repli SQL, normalisés comme dans les index en mémoire ; les cases
+    // inutilisées restent vides (aucun filtre) et les mots au-delà de MAX_WORD_PREFIXES sont ignorés
+    private static String[] wordPrefixes(String query) {
+        List<String> tokens = TextNormalizer.tokenize(query);
+        String[] words = new String[AnnonceRepository.MAX_WORD_PREFIXES];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = i < tokens.size() ? tokens.get(i) : "";
+        }
+        return words;
     }
 
-    public Annonce cancelAnnonce(Long announcementId) {
-        Annonce announcement = annonceRepository.findById(announcementId)
-                .orElseThrow(() -> new RuntimeException("Annonce non trouvée"));
+    public Slice<AnnonceSummary> getAnnoncesByDateRange(LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        return annonceRepository.findByLossDateBetweenAndStatus(startDate, endDate, AnnouncementStatus.ACTIVE,
+                pageable);
+    }
 
-        announcement.setStatus(AnnouncementStatus.CANCELLED);
-        announcement.setUpdatedAt(LocalDateTime.now());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Annonce resolveAnnonce(Long announcementId, Long ownerId) {
+        return transitionStatus(announcementId, ownerId, AnnouncementStatus.RESOLVED);
+    }
 
-        return annonceRepository.save(announcement);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Annonce cancelAnnonce(Long announcementId, Long ownerId) {
+        return transitionStatus(announcementId, ownerId, AnnouncementStatus.CANCELLED);
     }
 
     public void deleteAnnonce(Long announcementId) {
         Annonce announcement = annonceRepository.findById(announcementId)
                 .orElseThrow(() -> new RuntimeException("Annonce non trouvée"));
 
+        AnnonceStatisticsService.Key before = AnnonceStatisticsService.Key.of(announcement);
         annonceRepository.delete(announcement);
+        annonceSearchIndex.removeAfterCommit(announcementId);
+        documentMatchingService.removeAnnonceAfterCommit(announcementId);
+        annonceStatisticsService.recordChangeAfterCommit(before, null);
     }
 
-    public List<Annonce> getExpiredAnnonces() {
-        return annonceRepository.findExpiredAnnonces(LocalDateTime.now());
+    /**
+     * Supprime une annonce pour le compte de son propriétaire. La suppression
+     * passe par l'entité pour cascader sur les messages.
+     *
+     * @throws EntityNotFoundException si l'annonce n'existe pas
+     * @throws AccessDeniedException si l'utilisateur n'en est pas le propriétaire
+     */
+    public void deleteAnnonce(Long announcementId, Long ownerId) {
+        Annonce announcement = findOwnedAnnonce(announcementId, ownerId);
+
+        AnnonceStatisticsService.Key before = AnnonceStatisticsService.Key.of(announcement);
+        annonceRepository.delete(announcement);
+        annonceSearchIndex.removeAfterCommit(announcementId);
+        documentMatchingService.removeAnnonceAfterCommit(announcementId);
+        annonceStatisticsService.recordChangeAfterCommit(before, null);
     }
 
-    public void markExpiredAnnonces() {
-        List<Annonce> expiredAnnonces = getExpiredAnnonces();
+    public Page<Annonce> getExpiredAnnonces(Pageable pageable) {
+        return annonceRepository.findExpiredAnnonces(LocalDateTime.now(), pageable);
+    }
 
-        for (Annonce announcement : expiredAnnonces) {
-            announcement.setStatus(AnnouncementStatus.EXPIRED);
-            announcement.setUpdatedAt(LocalDateTime.now());
-            annonceRepository.save(announcement);
-        }
+    // Chaque lot est validé séparément par le moteur d'expiration
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long markExpiredAnnonces() {
+        return annonceExpiryService.expireNow();
     }
 
     public Long getAnnonceCountByStatus(AnnouncementStatus status) {
-        return annonceRepository.countByStatus(status);
+        return annonceStatisticsService.getCountByStatus(status);
     }
 
     public Long getAnnonceCountByDocumentType(DocumentType type) {
-        return annonceRepository.countByDocumentType(type);
+        return annonceStatisticsService.getCountByDocumentType(type);
     }
 
-    public Annonce extendAnnonce(Long announcementId, int days) {
-        Annonce announcement = annonceRepository.findById(announcementId)
-                .orElseThrow(() -> new RuntimeException("Annonce non trouvée"));
+    /**
+     * Prolonge une annonce en compare-and-set sur la version, comme les
+     * changements de statut : la nouvelle échéance est calculée à partir de la
+     * valeur lue, et une écriture concurrente fait recommencer la lecture. La
+     * date renvoyée est donc celle écrite en base.
+     *
+     * @throws EntityNotFoundException si l'annonce n'existe pas
+     * @throws AccessDeniedException si l'utilisateur n'en est pas le propriétaire
+     * @throws InvalidStatusTransitionException si toutes les tentatives sont en conflit
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Annonce extendAnnonce(Long announcementId, Long ownerId, int days) {
+        return retryOnConflict(announcementId, () -> tryExtend(announcementId, ownerId, days));
+    }
 
-        announcement.setExpiresAt(announcement.getExpiresAt().plusDays(days));
-        announcement.setUpdatedAt(LocalDateTime.now());
+    // Une tentative ; null si la version lue n'est plus celle en base
+    private Annonce tryExtend(Long announcementId, Long ownerId, int days) {
+        Annonce announcement = findOwnedAnnonce(announcementId, ownerId);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime current = announcement.getExpiresAt() != null ? announcement.getExpiresAt() : now;
+        LocalDateTime expiresAt = current.plusDays(days);
+
+        int updated = annonceRepository.compareAndSetExpiresAt(announcementId, ownerId, announcement.getVersion(),
+                expiresAt, now);
+        if (updated == 0) {
+            return null;
+        }
 
-        return annonceRepository.save(announcement);
+        // L'UPDATE a détaché l'entité : ces valeurs ne sont pas réécrites en base
+        announcement.setExpiresAt(expiresAt);
+        announcement.setUpdatedAt(now);
+        announcement.setVersion(announcement.getVersion() + 1);
+        evictAfterCommit(announcementId);
+        return announcement;
     }
 
-    public void incrementViews(Long announcementId) {
-        Annonce announcement = annonceRepository.findById(announcementId)
-                .orElseThrow(() -> new RuntimeException("Annonce non trouvée"));
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Annonce updateStatus(Long announcementId, Long ownerId, AnnouncementStatus status) {
+        return transitionStatus(announcementId, ownerId, status);
+    }
 
-        announcement.setViews(announcement.getViews() + 1);
-        annonceRepository.save(announcement);
+    /**
+     * Applique une transition permise par {@link AnnouncementStatus#canTransitionTo}
+     * en compare-and-set sur la version, sans verrou de ligne. Chaque tentative a
+     * sa propre transaction : après un conflit, l'annonce est retirée du cache et
+     * relue en base, au plus {@code app.annonces.status-update.max-attempts} fois.
+     * Demander le statut courant ne modifie rien.
+     *
+     * @throws EntityNotFoundException si l'annonce n'existe pas
+     * @throws AccessDeniedException si l'utilisateur n'en est pas le propriétaire
+     * @throws InvalidStatusTransitionException si la transition n'est pas permise depuis le statut
+     *         courant, ou si toutes les tentatives sont en conflit
+     */
+    private Annonce transitionStatus(Long announcementId, Long ownerId, AnnouncementStatus status) {
+        return retryOnConflict(announcementId, () -> tryTransitionStatus(announcementId, ownerId, status));
     }
 
-    public Annonce updateStatus(Long announcementId, AnnouncementStatus status) {
-        Annonce announcement = annonceRepository.findById(announcementId)
-                .orElseThrow(() -> new RuntimeException("Annonce non trouvée"));
+    // Rejoue une tentative compare-and-set, chacune dans sa transaction, tant qu'elle renvoie null
+    private Annonce retryOnConflict(Long announcementId, Supplier<Annonce> attemptOnce) {
+        for (int attempt = 1; ; attempt++) {
+            Annonce announcement = transactionTemplate.execute(tx -> attemptOnce.get());
+            if (announcement != null) {
+                return announcement;
+            }
+            entityManagerFactory.getCache().evict(Annonce.class, announcementId);
+            if (attempt >= statusUpdateMaxAttempts) {
+                throw new InvalidStatusTransitionException(
+                        "L'annonce a été modifiée simultanément, veuillez réessayer");
+            }
+        }
+    }
 
-        announcement.setStatus(status);
-        announcement.setUpdatedAt(LocalDateTime.now());
+    // Une tentative ; null si la version lue n'est plus celle en base
+    private Annonce tryTransitionStatus(Long announcementId, Long ownerId, AnnouncementStatus status) {
+        Annonce announcement = findOwnedAnnonce(announcementId, ownerId);
+        AnnouncementStatus current = announcement.getStatus();
+        if (current == status) {
+            return announcement;
+        }
+        if (!current.canTransitionTo(status)) {
+            throw new InvalidStatusTransitionException("Transition impossible : une annonce au statut "
+                    + current.getDisplayName() + " ne peut pas passer au statut " + status.getDisplayName());
+        }
+        AnnonceStatisticsService.Key before = AnnonceStatisticsService.Key.of(announcement);
+        LocalDateTime now = LocalDateTime.now();
 
+        int updated = annonceRepository.compareAndSetStatus(announcementId, ownerId, announcement.getVersion(),
+                status.name(), now);
+        if (updated == 0) {
+            return null;
+        }
+
+        // L'UPDATE a détaché l'entité : ces valeurs ne sont pas réécrites en base
+        announcement.setStatus(status);
+        announcement.setUpdatedAt(now);
+        announcement.setVersion(announcement.getVersion() + 1);
         if (status == AnnouncementStatus.RESOLVED) {
-            announcement.setResolvedAt(LocalDateTime.now());
+            announcement.setResolvedAt(now);
         }
+        evictAfterCommit(announcementId);
+        annonceStatisticsService.recordChangeAfterCommit(before, AnnonceStatisticsService.Key.of(announcement));
+        documentMatchingService.indexAnnonceAfterCommit(announcement);
+        // Retirée de l'index des noms si elle n'est plus active, remise si elle le redevient (EXPIRED -> ACTIVE)
+        annonceSearchIndex.indexAfterCommit(announcement);
+        return announcement;
+    }
+
+    // L'identifiant du propriétaire est lu sur le proxy, sans charger l'utilisateur
+    private Annonce findOwnedAnnonce(Long announcementId, Long ownerId) {
+        Annonce announcement = annonceRepository.findById(announcementId)
+                .orElseThrow(() -> new EntityNotFoundException("Annonce non trouvée"));
+        if (!announcement.getUser().getId().equals(ownerId)) {
+            throw new AccessDeniedException("Cette annonce appartient à un autre utilisateur");
+        }
+        return announcement;
+    }
 
-        return annonceRepository.save(announcement);
+    // Les mutations natives n'invalident pas la région "annonces" : seule l'annonce modifiée en sort
+    private void evictAfterCommit(Long announcementId) {
+        TransactionHooks.afterCommit(() -> entityManagerFactory.getCache().evict(Annonce.class, announcementId));
     }
 }
@@ -0,0 +1,219 @@
+package com.documents.lostdocumentsapp.service;
+
+import com.documents.lostdocumentsapp.model.Annonce;
+import com.documents.lostdocumentsapp.model.AnnouncementStatus;
+import com.documents.lostdocumentsapp.model.DocumentType;
+import com.documents.lostdocumentsapp.repository.AnnonceRepository;
+import com.documents.lostdocumentsapp.repository.UserRepository;
+import com.documents.lostdocumentsapp.util.TextNormalizer;
+import com.documents.lostdocumentsapp.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Statistiques des annonces tenues en mémoire.
+ *
+ * <p>
+ * Les compteurs par statut, type de document et ville sont ajustés après
+ * chaque commit par les chemins d'écriture de {@link AnnonceService} et par
+ * l'expiration en lot. Une requête {@code GROUP BY} unique les recale
+ * périodiquement ({@code app.statistics.reconcile-interval-ms}), avec les
+ * comptes d'utilisateurs. Les lectures ne touchent jamais la base.
+ *
+ * <p>
+ * Les villes sont saisies librement : elles sont comptées sous leur forme
+ * normalisée ({@link TextNormalizer}, comme dans l'index de recherche), et
+ * seules les {@code app.statistics.top-cities} plus fréquentes sont renvoyées.
+ */
+@Service
+public class AnnonceStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnonceStatisticsService.class);
+
+    @Autowired
+    private AnnonceRepository annonceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.statistics.top-cities:20}")
+    private int topCities;
+
+    private volatile Counters counters = new Counters();
+    private volatile long totalUsers;
+    private volatile long activeUsers;
+    private volatile LocalDateTime reconciledAt;
+
+    // Verrou plutôt que synchronized : un thread virtuel qui attend la base ne bloque pas son porteur
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    /**
+     * Attributs d'une annonce qui déterminent ses compteurs ; à capturer avant
+     * et après une modification.
+     */
+    public record Key(AnnouncementStatus status, DocumentType type, String city) {
+
+        public static Key of(Annonce annonce) {
+            return new Key(annonce.getStatus(), annonce.getDocumentType(), cityKey(annonce.getLossCity()));
+        }
+    }
+
+    /**
+     * Applique, après commit, le passage d'une annonce de {@code before} à
+     * {@code after} ({@code null} pour une création ou une suppression).
+     */
+    public void recordChangeAfterCommit(Key before, Key after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            Counters current = counters;
+            if (before != null) {
+                current.add(before, -1);
+            }
+            if (after != null) {
+                current.add(after, 1);
+            }
+        });
+    }
+
+    /**
+     * Changement de statut en masse (type et ville inchangés), déjà validé en
+     * base.
+     */
+    public void recordStatusChange(AnnouncementStatus from, AnnouncementStatus to, long count) {
+        if (count > 0) {
+            Counters current = counters;
+            current.byStatus.get(from).add(-count);
+            current.byStatus.get(to).add(count);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.statistics.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        try {
+            Counters fresh = new Counters();
+            for (Object[] row : annonceRepository.countGroupedByStatusTypeAndCity()) {
+                fresh.add(new Key((AnnouncementStatus) row[0], (DocumentType) row[1], cityKey((String) row[2])),
+                        ((Number) row[3]).longValue());
+            }
+            counters = fresh;
+            totalUsers = userRepository.count();
+            activeUsers = userRepository.countActiveVerifiedUsers();
+            reconciledAt = LocalDateTime.now();
+        } catch (RuntimeException e) {
+            log.warn("Échec du recalage des statistiques, conservation des compteurs courants", e);
+        }
+    }
+
+    public long getCountByStatus(AnnouncementStatus status) {
+        return ensureLoaded().byStatus.get(status).sum();
+    }
+
+    public long getTotalAnnonces() {
+        return ensureLoaded().byStatus.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long getCountByDocumentType(DocumentType type) {
+        LongAdder adder = ensureLoaded().byType.get(type);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    public Map<String, Long> getCountsByDocumentType() {
+        Counters current = ensureLoaded();
+        Map<String, Long> result = new TreeMap<>();
+        for (DocumentType type : DocumentType.values()) {
+            LongAdder adder = current.byType.get(type);
+            result.put(type.name(), adder != null ? adder.sum() : 0L);
+        }
+        return result;
+    }
+
+    // Villes les plus fréquentes, de la plus à la moins représentée
+    public Map<String, Long> getCountsByCity() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        ensureLoaded().byCity.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(topCities)
+                .forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    public long getTotalUsers() {
+        ensureLoaded();
+        return totalUsers;
+    }
+
+    public long getActiveUsers() {
+        ensureLoaded();
+        return activeUsers;
+    }
+
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+
+    // Premier accès avant la première passe planifiée
+    private Counters ensureLoaded() {
+        if (reconciledAt == null) {
+            loadLock.lock();
+            try {
+                if (reconciledAt == null) {
+                    reconcile();
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        return counters;
+    }
+
+    // "Dakar", "dakar " et "DAKAR" partagent un compteur ; vide si la ville n'est pas renseignée
+    private static String cityKey(String city) {
+        return TextNormalizer.normalize(city);
+    }
+
+    private static final class Counters {
+
+        private final Map<AnnouncementStatus, LongAdder> byStatus = new EnumMap<>(AnnouncementStatus.class);
+        private final Map<DocumentType, LongAdder> byType = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> byCity = new ConcurrentHashMap<>();
+
+        Counters() {
+            // Toutes les clés présentes dès la création : la map n'est plus modifiée ensuite
+            for (AnnouncementStatus status : AnnouncementStatus.values()) {
+                byStatus.put(status, new LongAdder());
+            }
+        }
+
+        void add(Key key, long delta) {
+            if (key.status() != null) {
+                byStatus.get(key.status()).add(delta);
+            }
+            if (key.type() != null) {
+                byType.computeIfAbsent(key.type(), type -> new LongAdder()).add(delta);
+            }
+            if (!key.city().isEmpty()) {
+                byCity.computeIfAbsent(key.city(), city -> new LongAdder()).add(delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.documents.lostdocumentsapp.service;
+
+import com.documents.lostdocumentsapp.model.Annonce;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteur de vues en écriture différée.
+ *
+ * <p>
+ * Chaque consultation incrémente un {@link LongAdder} propre à l'annonce, sans
+ * accès à la base. Les incréments en attente sont écrits périodiquement (et à
+ * l'arrêt) par un seul batch {@code UPDATE annonces SET views = views + ?}.
+ * Ce batch passe à côté d'Hibernate : les annonces écrites sont ensuite
+ * retirées du cache de second niveau.
+ */
+@Component
+public class AnnonceViewCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnonceViewCounter.class);
+
+    private static final String FLUSH_SQL = "UPDATE annonces SET views = views + ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Enregistre une vue et retourne le nombre de vues pas encore écrites en
+     * base pour cette annonce (vue courante comprise).
+     */
+    public long increment(Long annonceId) {
+        LongAdder adder = pending.computeIfAbsent(annonceId, id -> new LongAdder());
+        adder.increment();
+        if (pending.get(annonceId) != adder) {
+            // Le compteur a été retiré par un flush concurrent : on reporte ce qu'il contient
+            long orphaned = adder.sumThenReset();
+            if (orphaned > 0) {
+                pending.computeIfAbsent(annonceId, id -> new LongAdder()).add(orphaned);
+            }
+        }
+        return getPending(annonceId);
+    }
+
+    public long getPending(Long annonceId) {
+        LongAdder adder = pending.get(annonceId);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    @Scheduled(fixedDelayString = "${app.views.flush-interval-ms:5000}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        pending.forEach((id, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                batch.add(new Object[] { delta, id });
+            } else {
+                // Retrait atomique, et seulement si aucune vue n'est arrivée depuis la lecture
+                pending.computeIfPresent(id, (key, current) -> current.sum() == 0 ? null : current);
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+            Cache cache = entityManagerFactory.getCache();
+            for (Object[] row : batch) {
+                cache.evict(Annonce.class, row[1]);
+            }
+        } catch (RuntimeException e) {
+            // Les vues seront retentées au prochain passage
+            for (Object[] row : batch) {
+                pending.computeIfAbsent((Long) row[1], id -> new LongAdder()).add((Long) row[0]);
+            }
+            log.warn("Échec de l'écriture de {} compteurs de vues", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,96 @@
+package com.documents.lostdocumentsapp.service;
+
+import com.documents.lostdocumentsapp.dto.ConversationSummary;
+import com.documents.lostdocumentsapp.model.Message;
+import com.documents.lostdocumentsapp.model.User;
+import com.documents.lostdocumentsapp.repository.ConversationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Tenue de la table {@code conversations} : chaque message met à jour, dans la
+ * même transaction, la ligne de l'expéditeur (dernier message) et celle du
+ * destinataire (dernier message et non lus).
+ */
+@Service
+@Transactional
+public class ConversationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConversationService.class);
+
+    private static final int PREVIEW_LENGTH = 200;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    public void recordMessage(Message message) {
+        Long senderId = message.getSender().getId();
+        Long receiverId = message.getReceiver().getId();
+        Long announcementId = message.getAnnouncement().getId();
+        String preview = preview(message.getContent());
+
+        conversationRepository.upsertLastMessage(senderId, receiverId, announcementId, message.getId(),
+                message.getCreatedAt(), preview, 0);
+        conversationRepository.upsertLastMessage(receiverId, senderId, announcementId, message.getId(),
+                message.getCreatedAt(), preview, 1);
+    }
+
+    // À appeler uniquement quand le message passe de non lu à lu
+    public void recordRead(Message message) {
+        conversationRepository.decrementUnread(message.getReceiver().getId(), message.getSender().getId(),
+                message.getAnnouncement().getId());
+    }
+
+    // Après un marquage en masse : les messages arrivés entre-temps restent comptés
+    public void recordAllRead(Long ownerId) {
+        conversationRepository.recomputeUnread(ownerId);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ConversationSummary> getInbox(Long ownerId, Pageable pageable) {
+        return conversationRepository.findInbox(ownerId, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public List<User> getPartners(Long ownerId) {
+        return conversationRepository.findPartners(ownerId);
+    }
+
+    /**
+     * Construit la table à partir des messages existants au premier démarrage
+     * qui la trouve vide.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (conversationRepository.count() > 0) {
+                return;
+            }
+            int created = conversationRepository.backfillFromMessages();
+            if (created > 0) {
+                conversationRepository.backfillPreviews();
+                log.info("Table des conversations initialisée : {} lignes", created);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Initialisée en parallèle par un autre nœud
+            log.info("Table des conversations déjà initialisée par un autre nœud");
+        }
+    }
+
+    private static String preview(String content) {
+        if (content == null) {
+            return null;
+        }
+        return content.length() <= PREVIEW_LENGTH ? content : content.substring(0, PREVIEW_LENGTH);
+    }
+}
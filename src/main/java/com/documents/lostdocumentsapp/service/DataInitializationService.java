@@ -3,6 +3,8 @@ package com.documents.lostdocumentsapp.service;
 import com.documents.lostdocumentsapp.model.AuthProvider;
 import com.documents.lostdocumentsapp.model.User;
 import com.documents.lostdocumentsapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -13,6 +15,8 @@ import java.util.Set;
 @Service
 public class DataInitializationService implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(DataInitializationService.class);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -21,9 +25,9 @@ public class DataInitializationService implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
-        System.out.println("🚀 Application Lost Documents App démarrée avec succès !");
-        System.out.println("📋 Swagger UI disponible sur : http://localhost:8080/swagger-ui/index.html");
-        System.out.println("🔗 API Documentation : http://localhost:8080/v3/api-docs");
+        log.info("🚀 Application Lost Documents App démarrée avec succès !");
+        log.info("📋 Swagger UI disponible sur : http://localhost:8080/swagger-ui/index.html");
+        log.info("🔗 API Documentation : http://localhost:8080/v3/api-docs");
 
         // Initialize roles if they don't exist
         initializeRoles();
@@ -35,9 +39,7 @@ public class DataInitializationService implements CommandLineRunner {
     private void initializeRoles() {
         // This would typically be done via SQL scripts or data.sql
         // For now, just log that roles should be initialized
-        System.out.println("🔐 Initialisation des rôles...");
-        System.out.println("   - ROLE_USER (ID: 1)");
-        System.out.println("   - ROLE_ADMIN (ID: 2)");
+        log.info("🔐 Initialisation des rôles : ROLE_USER (ID: 1), ROLE_ADMIN (ID: 2)");
     }
 
     private void createDefaultUsers() {
@@ -55,13 +57,12 @@ public class DataInitializationService implements CommandLineRunner {
             adminUser.setRoles(Set.of("ROLE_ADMIN"));
 
             userRepository.save(adminUser);
-            System.out.println("✅ Utilisateur admin créé : admin@lostdocuments.com / admin123");
+            log.info("✅ Utilisateur admin créé : admin@lostdocuments.com / admin123");
         } else {
-            System.out.println("ℹ️  Utilisateur admin existe déjà");
+            log.info("ℹ️  Utilisateur admin existe déjà");
         }
 
-        System.out.println("ℹ️  Utilisez l'API /api/auth/signup pour créer des comptes utilisateur normaux.");
-        System.out.println(
-                "ℹ️  Une fois inscrit, vous pourrez vous connecter directement avec vos informations via /api/auth/login.");
+        log.info("ℹ️  Utilisez l'API /api/auth/signup pour créer des comptes utilisateur normaux.");
+        log.info("ℹ️  Une fois inscrit, vous pourrez vous connecter directement avec vos informations via /api/auth/login.");
     }
 }
@@ -0,0 +1,367 @@
+package com.documents.lostdocumentsapp.service;
+
+import com.documents.lostdocumentsapp.model.Annonce;
+import com.documents.lostdocumentsapp.model.AnnouncementStatus;
+import com.documents.lostdocumentsapp.model.Document;
+import com.documents.lostdocumentsapp.model.DocumentType;
+import com.documents.lostdocumentsapp.repository.AnnonceRepository;
+import com.documents.lostdocumentsapp.repository.DocumentRepository;
+import com.documents.lostdocumentsapp.util.PhoneticEncoder;
+import com.documents.lostdocumentsapp.util.StringDistance;
+import com.documents.lostdocumentsapp.util.TextNormalizer;
+import com.documents.lostdocumentsapp.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Rapprochement automatique entre annonces de perte et documents trouvés
+ * (documents enregistrés sans annonce).
+ *
+ * <p>
+ * Les deux côtés sont tenus en mémoire dans un index de blocage : type de
+ * document + numéro normalisé, type + code phonétique du nom, type + codes du
+ * nom et du premier prénom. Une insertion ne lit que les quelques candidats
+ * partageant une de ses clés et les note sans accès à la base ; les clés trop
+ * fréquentes ({@code app.matching.max-block-size}) sont ignorées. Un
+ * rapprochement exige deux indices indépendants, le numéro et le nom du
+ * titulaire : un nom courant seul ne suffit jamais. Au-delà de
+ * {@code app.matching.threshold}, le propriétaire de l'annonce est notifié dans
+ * la transaction de l'insertion. Seules les annonces actives sont rapprochées.
+ * Les index sont chargés au démarrage puis maintenus après chaque commit.
+ */
+@Service
+public class DocumentMatchingService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentMatchingService.class);
+
+    private static final double NUMBER_WEIGHT = 0.5;
+    private static final double NEAR_NUMBER_WEIGHT = 0.35;
+    private static final double LAST_NAME_WEIGHT = 0.35;
+    private static final double FIRST_NAME_WEIGHT = 0.15;
+    private static final double PHONETIC_SIMILARITY = 0.9;
+    private static final int MIN_NUMBER_LENGTH = 4;
+
+    @Autowired
+    private AnnonceRepository annonceRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Value("${app.matching.threshold:0.65}")
+    private double threshold;
+
+    @Value("${app.matching.max-block-size:500}")
+    private int maxBlockSize;
+
+    @Value("${app.matching.warmup-batch-size:5000}")
+    private int warmupBatchSize;
+
+    private final BlockIndex annonces = new BlockIndex();
+    private final BlockIndex documents = new BlockIndex();
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread warmup = new Thread(this::loadAll, "document-matching-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Nouvelle annonce : notifie son propriétaire pour chaque document trouvé
+     * correspondant, puis l'indexe une fois la transaction validée.
+     */
+    public void matchNewAnnonce(Annonce annonce) {
+        // Une annonce créée résolue ou annulée n'appelle aucune notification
+        if (annonce.getStatus() == AnnouncementStatus.ACTIVE) {
+            List<Long> documentIds = documents.match(Profile.of(annonce));
+            if (!documentIds.isEmpty()) {
+                for (Document document : documentRepository.findAllById(documentIds)) {
+                    log.info("Rapprochement : annonce {} ↔ document trouvé {}", annonce.getId(), document.getId());
+                    emailService.sendAnnonceMatchedNotification(annonce.getUser(), annonce, document);
+                }
+            }
+        }
+        indexAnnonceAfterCommit(annonce);
+    }
+
+    /**
+     * Nouveau document trouvé : notifie le propriétaire de chaque annonce active
+     * correspondante, puis l'indexe une fois la transaction validée.
+     */
+    public void matchNewDocument(Document document) {
+        Profile profile = Profile.of(document);
+        List<Long> annonceIds = annonces.match(profile);
+        if (!annonceIds.isEmpty()) {
+            for (Annonce annonce : annonceRepository.findAllById(annonceIds)) {
+                if (annonce.getStatus() != AnnouncementStatus.ACTIVE) {
+                    // Expirée en lot depuis son indexation
+                    removeAnnonceAfterCommit(annonce.getId());
+                    continue;
+                }
+                log.info("Rapprochement : document trouvé {} ↔ annonce {}", document.getId(), annonce.getId());
+                emailService.sendAnnonceMatchedNotification(annonce.getUser(), annonce, document);
+            }
+        }
+        Long id = document.getId();
+        TransactionHooks.afterCommit(() -> documents.put(id, profile));
+    }
+
+    // Seules les annonces actives sont candidates
+    public void indexAnnonceAfterCommit(Annonce annonce) {
+        Long id = annonce.getId();
+        if (annonce.getStatus() == AnnouncementStatus.ACTIVE) {
+            Profile profile = Profile.of(annonce);
+            TransactionHooks.afterCommit(() -> annonces.put(id, profile));
+        } else {
+            removeAnnonceAfterCommit(id);
+        }
+    }
+
+    public void removeAnnonceAfterCommit(Long annonceId) {
+        TransactionHooks.afterCommit(() -> annonces.remove(annonceId, ready));
+    }
+
+    // Réindexe un document trouvé modifié ; les documents d'annonces ne sont pas concernés
+    public void reindexDocumentAfterCommit(Document document) {
+        Long id = document.getId();
+        Profile profile = Profile.of(document);
+        TransactionHooks.afterCommit(() -> documents.replace(id, profile));
+    }
+
+    public void removeDocumentAfterCommit(Long documentId) {
+        TransactionHooks.afterCommit(() -> documents.remove(documentId, ready));
+    }
+
+    private void loadAll() {
+        long start = System.currentTimeMillis();
+        try {
+            int annonceCount = load(annonces, (lastId, page) ->
+                    annonceRepository.findMatchingRows(lastId, AnnouncementStatus.ACTIVE, page));
+            int documentCount = load(documents, documentRepository::findFoundDocumentMatchingRows);
+            ready = true;
+            annonces.clearTombstones();
+            documents.clearTombstones();
+            log.info("Moteur de rapprochement prêt : {} annonces actives et {} documents trouvés en {} ms",
+                    annonceCount, documentCount, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Échec du chargement du moteur de rapprochement", e);
+        }
+    }
+
+    private int load(BlockIndex index, BiFunction<Long, PageRequest, List<Object[]>> source) {
+        long lastId = 0L;
+        int loaded = 0;
+        List<Object[]> rows;
+        do {
+            rows = source.apply(lastId, PageRequest.of(0, warmupBatchSize));
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                lastId = id;
+                Profile profile = Profile.of((DocumentType) row[1], (String) row[2], (String) row[3],
+                        (String) row[4]);
+                if (index.load(id, profile)) {
+                    loaded++;
+                }
+            }
+        } while (rows.size() == warmupBatchSize);
+        return loaded;
+    }
+
+    /**
+     * Note de ressemblance entre deux profils de même type : numéro identique
+     * ou à une faute près, plus nom et prénom (égaux, phonétiquement
+     * équivalents, ou proches en distance d'édition). Il faut les deux
+     * indices : sans numéro concordant, ou sans aucune ressemblance de nom,
+     * la note est nulle.
+     */
+    static double score(Profile a, Profile b) {
+        if (a.type() != b.type() || a.number().isEmpty() || b.number().isEmpty()) {
+            return 0.0;
+        }
+        double numberScore;
+        if (a.number().equals(b.number())) {
+            numberScore = NUMBER_WEIGHT;
+        } else if (a.number().length() >= 6 && StringDistance.levenshtein(a.number(), b.number(), 1) <= 1) {
+            numberScore = NEAR_NUMBER_WEIGHT;
+        } else {
+            return 0.0;
+        }
+        double nameScore = LAST_NAME_WEIGHT * nameSimilarity(a.lastName(), b.lastName(), a.lastCode(), b.lastCode())
+                + FIRST_NAME_WEIGHT * nameSimilarity(a.firstName(), b.firstName(), a.firstCode(), b.firstCode());
+        return nameScore > 0.0 ? numberScore + nameScore : 0.0;
+    }
+
+    private static double nameSimilarity(String a, String b, String codeA, String codeB) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        if (codeA.equals(codeB)) {
+            return PHONETIC_SIMILARITY;
+        }
+        return StringDistance.similarity(a, b, 2);
+    }
+
+    /**
+     * Champs de rapprochement normalisés d'une annonce ou d'un document.
+     */
+    record Profile(DocumentType type, String number, String lastName, String firstName,
+                   String lastCode, String firstCode) {
+
+        static Profile of(Annonce annonce) {
+            return of(annonce.getDocumentType(), annonce.getDocumentNumber(), annonce.getHolderName(),
+                    annonce.getHolderFirstName());
+        }
+
+        static Profile of(Document document) {
+            return of(document.getTypeDocument(), document.getNomDocument(), document.getHolderName(),
+                    document.getHolderFirstName());
+        }
+
+        static Profile of(DocumentType type, String number, String holderName, String holderFirstName) {
+            String normalizedNumber = TextNormalizer.normalize(number).replace(" ", "");
+            if (normalizedNumber.length() < MIN_NUMBER_LENGTH) {
+                normalizedNumber = "";
+            }
+            String lastName = TextNormalizer.normalize(holderName).replace(" ", "");
+            List<String> firstNames = TextNormalizer.tokenize(holderFirstName);
+            String firstName = firstNames.isEmpty() ? "" : firstNames.get(0);
+            return new Profile(type, normalizedNumber, lastName, firstName,
+                    PhoneticEncoder.encode(lastName), PhoneticEncoder.encode(firstName));
+        }
+
+        List<String> blockingKeys() {
+            List<String> keys = new ArrayList<>(3);
+            if (type == null) {
+                return keys;
+            }
+            if (!number.isEmpty()) {
+                keys.add("N|" + type + "|" + number);
+            }
+            if (!lastCode.isEmpty()) {
+                keys.add("L|" + type + "|" + lastCode);
+                if (!firstCode.isEmpty()) {
+                    keys.add("LF|" + type + "|" + lastCode + "|" + firstCode);
+                }
+            }
+            return keys;
+        }
+    }
+
+    /**
+     * Clés de blocage → identifiants, et profil de chaque identifiant pour la
+     * notation.
+     */
+    private final class BlockIndex {
+
+        private final Map<String, Set<Long>> blocks = new ConcurrentHashMap<>();
+        private final Map<Long, Profile> profiles = new ConcurrentHashMap<>();
+        private final Set<Long> removedDuringWarmup = ConcurrentHashMap.newKeySet();
+
+        List<Long> match(Profile probe) {
+            Map<Long, Double> scores = new HashMap<>();
+            for (String key : probe.blockingKeys()) {
+                Set<Long> ids = blocks.get(key);
+                if (ids == null || ids.size() > maxBlockSize) {
+                    continue;
+                }
+                for (Long id : ids) {
+                    if (!scores.containsKey(id)) {
+                        Profile candidate = profiles.get(id);
+                        scores.put(id, candidate != null ? score(probe, candidate) : 0.0);
+                    }
+                }
+            }
+            List<Long> matches = new ArrayList<>();
+            scores.forEach((id, score) -> {
+                if (score >= threshold) {
+                    matches.add(id);
+                }
+            });
+            return matches;
+        }
+
+        void put(Long id, Profile profile) {
+            Profile previous = profiles.put(id, profile);
+            if (previous != null) {
+                unlink(id, previous);
+            }
+            link(id, profile);
+        }
+
+        void replace(Long id, Profile profile) {
+            Profile previous = profiles.replace(id, profile);
+            if (previous != null) {
+                unlink(id, previous);
+                link(id, profile);
+            }
+        }
+
+        // Les écritures arrivées pendant le chargement sont plus récentes
+        boolean load(Long id, Profile profile) {
+            if (removedDuringWarmup.contains(id) || profiles.putIfAbsent(id, profile) != null) {
+                return false;
+            }
+            link(id, profile);
+            return true;
+        }
+
+        void remove(Long id, boolean ready) {
+            if (!ready) {
+                removedDuringWarmup.add(id);
+            }
+            Profile previous = profiles.remove(id);
+            if (previous != null) {
+                unlink(id, previous);
+            }
+        }
+
+        void clearTombstones() {
+            removedDuringWarmup.clear();
+        }
+
+        private void link(Long id, Profile profile) {
+            for (String key : profile.blockingKeys()) {
+                blocks.compute(key, (k, ids) -> {
+                    Set<Long> target = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                    target.add(id);
+                    return target;
+                });
+            }
+        }
+
+        private void unlink(Long id, Profile profile) {
+            for (String key : profile.blockingKeys()) {
+                blocks.computeIfPresent(key, (k, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.documents.lostdocumentsapp.service;
+
+import com.documents.lostdocumentsapp.model.Document;
+import com.documents.lostdocumentsapp.model.DocumentType;
+import com.documents.lostdocumentsapp.repository.DocumentRepository;
+import com.documents.lostdocumentsapp.util.NameIndex;
+import com.documents.lostdocumentsapp.util.TextNormalizer;
+import com.documents.lostdocumentsapp.util.TransactionHooks;
+import com.documents.lostdocumentsapp.util.TrigramIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index en mémoire des documents : nom et prénom du titulaire
+ * ({@link NameIndex}) et recherche de sous-chaîne sur les six colonnes de la
+ * recherche textuelle ({@link TrigramIndex}).
+ *
+ * <p>
+ * Même cycle de vie que {@link AnnonceSearchIndex} : chargement au démarrage,
+ * mise à jour après chaque commit, et {@code null} renvoyé tant que l'index
+ * n'est pas prêt ou si la requête est trop peu sélective, l'appelant se
+ * rabattant alors sur SQL.
+ */
+@Component
+public class DocumentSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentSearchIndex.class);
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Value("${app.search.index.warmup-batch-size:5000}")
+    private int warmupBatchSize;
+
+    @Value("${app.search.index.max-candidates:10000}")
+    private int maxCandidates;
+
+    private final NameIndex holderIndex = new NameIndex();
+    private final TrigramIndex textIndex = new TrigramIndex();
+    private final Set<Long> removedDuringWarmup = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread warmup = new Thread(this::loadAll, "document-index-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Identifiants des documents dont le titulaire correspond à chacun des mots
+     * recherchés, du plus au moins pertinent.
+     */
+    public List<Long> findByHolder(String holderName) {
+        return ready ? holderIndex.search(holderName, maxCandidates) : null;
+    }
+
+    /**
+     * Documents dont une des colonnes de recherche contient le terme, du plus
+     * récent au plus ancien ; {@code null} si le terme est trop court.
+     */
+    public TrigramIndex.Result searchText(String term, long offset, int limit) {
+        return ready ? textIndex.search(term, offset, limit) : null;
+    }
+
+    public void indexAfterCommit(Document document) {
+        Long id = document.getId();
+        Set<String> holder = tokens(document.getHolderName(), document.getHolderFirstName());
+        String[] text = textFields(document.getNomDocument(), document.getTypeDocument(), document.getHolderName(),
+                document.getHolderFirstName(), document.getBirthPlace(), document.getDescription());
+        TransactionHooks.afterCommit(() -> {
+            holderIndex.put(id, holder);
+            textIndex.put(id, text);
+        });
+    }
+
+    public void removeAfterCommit(Long documentId) {
+        TransactionHooks.afterCommit(() -> {
+            if (!ready) {
+                removedDuringWarmup.add(documentId);
+            }
+            holderIndex.remove(documentId);
+            textIndex.remove(documentId);
+        });
+    }
+
+    private void loadAll() {
+        long start = System.currentTimeMillis();
+        long lastId = 0L;
+        int loaded = 0;
+        try {
+            List<Object[]> rows;
+            do {
+                rows = documentRepository.findSearchIndexRows(lastId, PageRequest.of(0, warmupBatchSize));
+                for (Object[] row : rows) {
+                    Long id = (Long) row[0];
+                    lastId = id;
+                    // Les écritures arrivées pendant le chargement sont plus récentes
+                    if (removedDuringWarmup.contains(id)) {
+                        continue;
+                    }
+                    textIndex.putIfAbsent(id, textFields((String) row[3], (DocumentType) row[4], (String) row[1],
+                            (String) row[2], (String) row[5], (String) row[6]));
+                    if (holderIndex.putIfAbsent(id, tokens((String) row[1], (String) row[2]))) {
+                        loaded++;
+                    }
+                }
+            } while (rows.size() == warmupBatchSize);
+            ready = true;
+            removedDuringWarmup.clear();
+            log.info("Index de recherche des documents prêt : {} documents en {} ms",
+                    loaded, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Échec du chargement de l'index des documents, repli sur SQL", e);
+        }
+    }
+
+    // Mêmes colonnes que DocumentRepository.findBySearchTerm
+    private static String[] textFields(String nomDocument, DocumentType type, String holderName,
+                                       String holderFirstName, String birthPlace, String description) {
+        return new String[] {nomDocument, type != null ? type.name() : null, holderName, holderFirstName,
+                birthPlace, description};
+    }
+
+    private static Set<String> tokens(String... values) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String value : values) {
+            tokens.addAll(TextNormalizer.tokenize(value));
+        }
+        return tokens;
+    }
+}
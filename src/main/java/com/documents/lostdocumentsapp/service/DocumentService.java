@@ -3,9 +3,13 @@ package com.documents.lostdocumentsapp.service;
 import com.documents.lostdocumentsapp.model.Document;
 import com.documents.lostdocumentsapp.model.DocumentType;
 import com.documents.lostdocumentsapp.repository.DocumentRepository;
+import com.documents.lostdocumentsapp.util.IndexedLookups;
+import com.documents.lostdocumentsapp.util.TrigramIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,10 +24,19 @@ public class DocumentService {
     @Autowired
     private DocumentRepository documentRepository;
 
+    @Autowired
+    private DocumentMatchingService documentMatchingService;
+
+    @Autowired
+    private DocumentSearchIndex documentSearchIndex;
+
     public Document createDocument(Document document) {
         document.setCreatedAt(LocalDateTime.now());
         document.setUpdatedAt(LocalDateTime.now());
-        return documentRepository.save(document);
+        Document savedDocument = documentRepository.save(document);
+        documentSearchIndex.indexAfterCommit(savedDocument);
+        documentMatchingService.matchNewDocument(savedDocument);
+        return savedDocument;
     }
 
     public Document updateDocument(Long documentId, Document documentDetails) {
@@ -40,7 +53,10 @@ public class DocumentService {
         document.setDocumentImage(documentDetails.getDocumentImage());
         document.setUpdatedAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        Document savedDocument = documentRepository.save(document);
+        documentSearchIndex.indexAfterCommit(savedDocument);
+        documentMatchingService.reindexDocumentAfterCommit(savedDocument);
+        return savedDocument;
     }
 
     public Document getDocumentById(Long documentId) {
@@ -56,16 +72,27 @@ public class DocumentService {
         return documentRepository.findAll();
     }
 
-    public List<Document> searchDocuments(String searchTerm) {
-        return documentRepository.findBySearchTerm(searchTerm);
+    // Index trigramme en mémoire, repli sur SQL tant qu'il n'est pas prêt ou pour un terme trop court
+    public Slice<Document> searchDocuments(String searchTerm, Pageable pageable) {
+        TrigramIndex.Result result = documentSearchIndex.searchText(searchTerm, pageable.getOffset(),
+                pageable.getPageSize());
+        if (result == null) {
+            return documentRepository.findBySearchTerm(searchTerm, pageable);
+        }
+        return new SliceImpl<>(findAllInOrder(result.ids()), pageable, result.hasNext());
     }
 
     public List<Document> getDocumentsByType(DocumentType typeDocument) {
         return documentRepository.findByTypeDocument(typeDocument);
     }
 
+    // Classés par pertinence quand l'index est disponible
     public List<Document> getDocumentsByHolder(String holderName) {
-        return documentRepository.findByHolderNameContainingIgnoreCase(holderName);
+        List<Long> rankedIds = documentSearchIndex.findByHolder(holderName);
+        if (rankedIds == null) {
+            return documentRepository.findByHolderNameContainingIgnoreCase(holderName);
+        }
+        return findAllInOrder(rankedIds);
     }
 
     public List<Document> getDocumentsByHolderFirstName(String holderFirstName) {
@@ -83,6 +110,8 @@ public class DocumentService {
     public void deleteDocument(Long documentId) {
         Document document = getDocumentById(documentId);
         documentRepository.delete(document);
+        documentSearchIndex.removeAfterCommit(documentId);
+        documentMatchingService.removeDocumentAfterCommit(documentId);
     }
 
     public Long getDocumentCount() {
@@ -100,4 +129,9 @@ public class DocumentService {
     public List<Document> findByTypeDocumentAndHolderName(DocumentType typeDocument, String holderName) {
         return documentRepository.findByTypeDocumentAndHolderNameContainingIgnoreCase(typeDocument, holderName);
     }
+
+    // Documents dans l'ordre des identifiants fournis par un index
+    private List<Document> findAllInOrder(List<Long> ids) {
+        return IndexedLookups.findAllInOrder(documentRepository, ids, Document::getId);
+    }
 }
@@ -0,0 +1,226 @@
+package com.documents.lostdocumentsapp.service;
+
+import com.documents.lostdocumentsapp.model.EmailOutbox;
+import com.documents.lostdocumentsapp.repository.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Expédition de la table {@code email_outbox}.
+ *
+ * <p>
+ * À chaque passage, le dispatcher réclame autant de lots que de workers libres
+ * ({@code SELECT ... FOR UPDATE SKIP LOCKED}, plusieurs nœuds peuvent tourner
+ * en parallèle). Chaque lot part par un seul appel
+ * {@code JavaMailSender.send(SimpleMailMessage...)}, donc sur une seule
+ * connexion SMTP. Un échec est retenté avec un délai exponentiel ; au-delà de
+ * {@code app.mail.outbox.max-attempts}, l'email passe en DEAD.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.workers:4}")
+    private int workers;
+
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.backoff-base-ms:30000}")
+    private long backoffBaseMs;
+
+    @Value("${app.mail.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    @Value("${app.mail.outbox.claim-timeout-seconds:300}")
+    private long claimTimeoutSeconds;
+
+    @Value("${app.mail.outbox.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${spring.mail.username:}")
+    private String from;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ExecutorService pool;
+    private Semaphore freeWorkers;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        if (virtualThreads) {
+            // Un thread virtuel par lot ; le sémaphore borne toujours le nombre d'envois SMTP simultanés
+            pool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("email-outbox-", 1).factory());
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            pool = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable, "email-outbox-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        freeWorkers = new Semaphore(workers);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        int available = freeWorkers.drainPermits();
+        if (available == 0) {
+            return;
+        }
+        List<EmailOutbox> claimed;
+        try {
+            claimed = claim(available * batchSize);
+        } catch (RuntimeException e) {
+            freeWorkers.release(available);
+            log.warn("Échec de la réclamation des emails en attente", e);
+            return;
+        }
+        int used = 0;
+        for (int start = 0; start < claimed.size(); start += batchSize) {
+            List<EmailOutbox> batch = claimed.subList(start, Math.min(start + batchSize, claimed.size()));
+            used++;
+            pool.execute(() -> {
+                try {
+                    send(batch);
+                } finally {
+                    freeWorkers.release();
+                }
+            });
+        }
+        freeWorkers.release(available - used);
+    }
+
+    @Scheduled(cron = "${app.mail.outbox.cleanup-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        int deleted = emailOutboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("{} emails envoyés purgés de l'outbox", deleted);
+        }
+    }
+
+    private List<EmailOutbox> claim(int limit) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = emailOutboxRepository.lockClaimable(now, limit);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            // Si ce nœud tombe avant la fin de l'envoi, les lignes redeviennent réclamables
+            emailOutboxRepository.markSending(ids, now.plusSeconds(claimTimeoutSeconds));
+            return emailOutboxRepository.findAllById(ids);
+        });
+    }
+
+    private void send(List<EmailOutbox> batch) {
+        Map<SimpleMailMessage, EmailOutbox> byMessage = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            byMessage.put(toMessage(email), email);
+        }
+        SimpleMailMessage[] messages = byMessage.keySet().toArray(new SimpleMailMessage[0]);
+        try {
+            mailSender.send(messages);
+            markSent(batch);
+        } catch (MailSendException e) {
+            // Échecs message par message : les autres sont partis
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                batch.forEach(email -> markFailed(email, e));
+                return;
+            }
+            List<EmailOutbox> sent = new ArrayList<>();
+            byMessage.forEach((message, email) -> {
+                Exception failure = failed.get(message);
+                if (failure != null) {
+                    markFailed(email, failure);
+                } else {
+                    sent.add(email);
+                }
+            });
+            markSent(sent);
+        } catch (RuntimeException e) {
+            // Connexion ou authentification : tout le lot est retenté
+            batch.forEach(email -> markFailed(email, e));
+        }
+    }
+
+    private void markSent(List<EmailOutbox> emails) {
+        if (!emails.isEmpty()) {
+            emailOutboxRepository.markSent(emails.stream().map(EmailOutbox::getId).toList(), LocalDateTime.now());
+        }
+    }
+
+    private void markFailed(EmailOutbox email, Exception error) {
+        int attempts = email.getAttempts() + 1;
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getName();
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        if (attempts >= maxAttempts) {
+            emailOutboxRepository.markFailed(email.getId(), EmailOutbox.Status.DEAD, attempts,
+                    LocalDateTime.now(), message);
+            log.error("Email {} abandonné après {} tentatives : {}", email.getId(), attempts, message);
+        } else {
+            long delayMs = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempts - 1, 20));
+            emailOutboxRepository.markFailed(email.getId(), EmailOutbox.Status.PENDING, attempts,
+                    LocalDateTime.now().plusNanos(delayMs * 1_000_000L), message);
+            log.warn("Échec d'envoi de l'email {} (tentative {}), nouvel essai dans {} ms", email.getId(),
+                    attempts, delayMs);
+        }
+    }
+
+    private SimpleMailMessage toMessage(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        if (from != null && !from.isBlank()) {
+            message.setFrom(from);
+        }
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        return message;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -1,159 +1,125 @@
 package com.documents.lostdocumentsapp.service;
 
 import com.documents.lostdocumentsapp.model.Annonce;
+import com.documents.lostdocumentsapp.model.Document;
+import com.documents.lostdocumentsapp.model.EmailOutbox;
 import com.documents.lostdocumentsapp.model.User;
+import com.documents.lostdocumentsapp.repository.EmailOutboxRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Notifications par email. Les messages sont déposés dans la table
+ * {@code email_outbox}, dans la transaction de l'appelant s'il y en a une, et
+ * expédiés en arrière-plan par {@link EmailOutboxDispatcher} : l'appelant
+ * n'attend jamais le serveur SMTP. Les corps sont rendus par
+ * {@link MailTemplates}.
+ */
 @Service
+@Transactional
+@Timed("service.calls")
 public class EmailService {
     
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxRepository emailOutboxRepository;
+    
+    @Autowired
+    private MailTemplates mailTemplates;
     
     public void sendAnnonceCreatedNotification(User user, Annonce announcement) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(user.getEmail());
-        message.setSubject("Votre annonce a été créée avec succès");
-        message.setText(buildAnnonceCreatedEmail(user, announcement));
-        
-        mailSender.send(message);
+        enqueue(user.getEmail(), "Votre annonce a été créée avec succès",
+                buildAnnonceCreatedEmail(user, announcement));
     }
     
     public void sendAnnonceMatchedNotification(User user, Annonce announcement, User finder) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(user.getEmail());
-        message.setSubject("Quelqu'un pense avoir trouvé votre document");
-        message.setText(buildAnnonceMatchedEmail(user, announcement, finder));
-        
-        mailSender.send(message);
+        enqueue(user.getEmail(), "Quelqu'un pense avoir trouvé votre document",
+                buildAnnonceMatchedEmail(user, announcement, finder));
+    }
+    
+    // Rapprochement automatique avec un document trouvé enregistré sans annonce
+    public void sendAnnonceMatchedNotification(User user, Annonce announcement, Document document) {
+        enqueue(user.getEmail(), "Un document correspondant à votre annonce a été trouvé",
+                buildDocumentMatchedEmail(user, announcement, document));
     }
     
     public void sendNewMessageNotification(User receiver, User sender, String messageContent) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(receiver.getEmail());
-        message.setSubject("Nouveau message reçu");
-        message.setText(buildNewMessageEmail(receiver, sender, messageContent));
-        
-        mailSender.send(message);
+        enqueue(receiver.getEmail(), "Nouveau message reçu",
+                buildNewMessageEmail(receiver, sender, messageContent));
     }
     
     public void sendAnnonceResolvedNotification(User user, Annonce announcement) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(user.getEmail());
-        message.setSubject("Votre annonce a été résolue");
-        message.setText(buildAnnonceResolvedEmail(user, announcement));
-        
-        mailSender.send(message);
+        enqueue(user.getEmail(), "Votre annonce a été résolue",
+                buildAnnonceResolvedEmail(user, announcement));
     }
     
     public void sendWelcomeEmail(User user) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(user.getEmail());
-        message.setSubject("Bienvenue sur Lost Documents App");
-        message.setText(buildWelcomeEmail(user));
-        
-        mailSender.send(message);
+        enqueue(user.getEmail(), "Bienvenue sur Lost Documents App", buildWelcomeEmail(user));
+    }
+    
+    // Dépose l'email dans l'outbox ; il part après le commit de la transaction courante
+    public void enqueue(String recipient, String subject, String body) {
+        emailOutboxRepository.save(new EmailOutbox(recipient, subject, body));
     }
     
     private String buildAnnonceCreatedEmail(User user, Annonce announcement) {
-        return String.format(
-            "Bonjour %s %s,\n\n" +
-            "Votre annonce pour le document perdu a été créée avec succès.\n\n" +
-            "Détails de l'annonce :\n" +
-            "- Titre : %s\n" +
-            "- Type de document : %s\n" +
-            "- Nom du titulaire : %s\n" +
-            "- Date de perte : %s\n" +
-            "- Lieu de perte : %s\n\n" +
-            "Votre annonce sera visible par tous les utilisateurs et vous recevrez une notification " +
-            "si quelqu'un pense avoir trouvé votre document.\n\n" +
-            "Cordialement,\n" +
-            "L'équipe Lost Documents App",
-            user.getFirstName(),
-            user.getLastName(),
-            announcement.getTitle(),
-            announcement.getDocument().getTypeDocument().getDisplayName(),
-            announcement.getDocument().getHolderName(),
-            announcement.getLossDate(),
-            announcement.getLossLocation()
-        );
+        Map<String, Object> model = announcementModel(user, announcement);
+        model.put("lossDate", announcement.getLossDate());
+        model.put("lossLocation", announcement.getLossLocation());
+        return mailTemplates.render("annonce-created", model);
     }
     
     private String buildAnnonceMatchedEmail(User user, Annonce announcement, User finder) {
-        return String.format(
-            "Bonjour %s %s,\n\n" +
-            "Excellente nouvelle ! Quelqu'un pense avoir trouvé votre document.\n\n" +
-            "Détails de l'annonce :\n" +
-            "- Titre : %s\n" +
-            "- Type de document : %s\n" +
-            "- Nom du titulaire : %s\n\n" +
-            "Personne ayant trouvé le document :\n" +
-            "- Nom : %s %s\n" +
-            "- Email : %s\n" +
-            "- Téléphone : %s\n\n" +
-            "Nous vous encourageons à contacter cette personne pour vérifier si c'est bien votre document.\n\n" +
-            "Cordialement,\n" +
-            "L'équipe Lost Documents App",
-            user.getFirstName(),
-            user.getLastName(),
-            announcement.getTitle(),
-            announcement.getDocument().getTypeDocument().getDisplayName(),
-            announcement.getDocument().getHolderName(),
-            finder.getFirstName(),
-            finder.getLastName(),
-            finder.getEmail(),
-            finder.getPhone()
-        );
+        Map<String, Object> model = announcementModel(user, announcement);
+        model.put("finderFirstName", finder.getFirstName());
+        model.put("finderLastName", finder.getLastName());
+        model.put("finderEmail", finder.getEmail());
+        model.put("finderPhone", finder.getPhone());
+        return mailTemplates.render("annonce-matched", model);
+    }
+    
+    private String buildDocumentMatchedEmail(User user, Annonce announcement, Document document) {
+        Map<String, Object> model = announcementModel(user, announcement);
+        model.put("documentNumber", document.getNomDocument());
+        model.put("documentHolderName", document.getHolderName());
+        model.put("documentHolderFirstName", document.getHolderFirstName());
+        return mailTemplates.render("document-matched", model);
     }
     
     private String buildNewMessageEmail(User receiver, User sender, String messageContent) {
-        return String.format(
-            "Bonjour %s %s,\n\n" +
-            "Vous avez reçu un nouveau message de %s %s.\n\n" +
-            "Message :\n%s\n\n" +
-            "Connectez-vous à votre compte pour répondre.\n\n" +
-            "Cordialement,\n" +
-            "L'équipe Lost Documents App",
-            receiver.getFirstName(),
-            receiver.getLastName(),
-            sender.getFirstName(),
-            sender.getLastName(),
-            messageContent
-        );
+        Map<String, Object> model = userModel(receiver);
+        model.put("senderFirstName", sender.getFirstName());
+        model.put("senderLastName", sender.getLastName());
+        model.put("content", messageContent);
+        return mailTemplates.render("new-message", model);
     }
     
     private String buildAnnonceResolvedEmail(User user, Annonce announcement) {
-        return String.format(
-            "Bonjour %s %s,\n\n" +
-            "Votre annonce '%s' a été marquée comme résolue.\n\n" +
-            "Nous espérons que vous avez retrouvé votre document en toute sécurité.\n\n" +
-            "Merci d'avoir utilisé notre service.\n\n" +
-            "Cordialement,\n" +
-            "L'équipe Lost Documents App",
-            user.getFirstName(),
-            user.getLastName(),
-            announcement.getTitle()
-        );
+        return mailTemplates.render("annonce-resolved", announcementModel(user, announcement));
     }
     
     private String buildWelcomeEmail(User user) {
-        return String.format(
-            "Bonjour %s %s,\n\n" +
-            "Bienvenue sur Lost Documents App !\n\n" +
-            "Votre compte a été créé avec succès. Vous pouvez maintenant :\n" +
-            "- Créer des annonces pour vos documents perdus\n" +
-            "- Rechercher des documents trouvés par d'autres utilisateurs\n" +
-            "- Communiquer directement avec les autres utilisateurs\n" +
-            "- Recevoir des notifications par email\n\n" +
-            "Nous vous souhaitons de retrouver rapidement vos documents perdus.\n\n" +
-            "Cordialement,\n" +
-            "L'équipe Lost Documents App",
-            user.getFirstName(),
-            user.getLastName()
-        );
+        return mailTemplates.render("welcome", userModel(user));
+    }
+    
+    private static Map<String, Object> userModel(User user) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("firstName", user.getFirstName());
+        model.put("lastName", user.getLastName());
+        return model;
+    }
+    
+    // Colonnes propres à l'annonce uniquement : pas de chargement du document associé
+    private static Map<String, Object> announcementModel(User user, Annonce announcement) {
+        Map<String, Object> model = userModel(user);
+        model.put("title", announcement.getTitle());
+        model.put("documentType", announcement.getDocumentType() != null
+                ? announcement.getDocumentType().getDisplayName() : null);
+        model.put("holderName", announcement.getHolderName());
+        return model;
     }
 }
-
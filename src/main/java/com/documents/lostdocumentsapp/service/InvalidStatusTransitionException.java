@@ -0,0 +1,14 @@
+package com.documents.lostdocumentsapp.service;
+
+/**
+ * Changement de statut d'annonce refusé : transition non permise depuis le
+ * statut courant, ou conflit persistant avec des écritures concurrentes (un
+ * changement de statut ou une prolongation). Le message est destiné à
+ * l'utilisateur.
+ */
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    public InvalidStatusTransitionException(String message) {
+        super(message);
+    }
+}
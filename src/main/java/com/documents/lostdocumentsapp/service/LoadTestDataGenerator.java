@@ -0,0 +1,490 @@
+package com.documents.lostdocumentsapp.service;
+
+import com.documents.lostdocumentsapp.model.AnnouncementStatus;
+import com.documents.lostdocumentsapp.model.DocumentType;
+import com.documents.lostdocumentsapp.util.SeedDistributions;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Remplit la base du profil {@code loadtest} : utilisateurs, documents perdus
+ * et trouvés, annonces, messages et conversations, par lots JDBC
+ * ({@code app.seed.batch-size} lignes par transaction) sans passer par JPA.
+ *
+ * <p>
+ * Les tirages dépendent uniquement de {@code app.seed.random-seed} : deux
+ * exécutions avec les mêmes volumes produisent les mêmes données, aux dates
+ * près (elles sont relatives au démarrage). Les distributions viennent de
+ * {@link SeedDistributions}. Les lignes étant insérées hors des services,
+ * aucune notification ni rapprochement n'est déclenché ; les index en mémoire
+ * les chargent au démarrage comme des données existantes.
+ *
+ * <p>
+ * La génération est sautée si le premier utilisateur semé existe déjà : une
+ * base fichier se réutilise d'un tir à l'autre.
+ */
+@Service
+@Profile("loadtest")
+public class LoadTestDataGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestDataGenerator.class);
+
+    private static final int HISTORY_DAYS = 365;
+    private static final int VALIDITY_DAYS = 30;
+    private static final int PREVIEW_LENGTH = 200;
+    private static final double[] REWARDS = { 2000, 5000, 10000, 20000, 50000 };
+    private static final String[] CONTACT_PREFERENCES = { "EMAIL", "PHONE", "BOTH" };
+
+    private static final String[] PARTNER_MESSAGES = {
+            "Bonjour, je pense avoir trouvé votre document. Pouvez-vous me confirmer le nom complet ?",
+            "Je l'ai déposé au commissariat du quartier, vous pouvez passer le récupérer.",
+            "Je suis disponible demain matin près du marché pour vous le remettre.",
+            "La photo correspond bien, je vous l'envoie par message.",
+            "D'accord, je vous appelle en arrivant." };
+    private static final String[] OWNER_MESSAGES = {
+            "Merci beaucoup ! Oui c'est bien le mien.",
+            "Où pouvons-nous nous retrouver ?",
+            "Je peux passer en fin de journée si cela vous convient.",
+            "Pouvez-vous m'envoyer une photo pour vérifier ?",
+            "Parfait, à tout à l'heure." };
+
+    private static final String INSERT_USER = "INSERT INTO users (first_name, last_name, email, phone, password, " +
+            "auth_provider, is_active, is_verified, created_at, updated_at) VALUES (?, ?, ?, ?, ?, 'LOCAL', TRUE, TRUE, ?, ?)";
+    private static final String INSERT_ROLE = "INSERT INTO user_roles (user_id, role) VALUES (?, 'ROLE_USER')";
+    private static final String INSERT_DOCUMENT = "INSERT INTO documents (nom_document, type_document, holder_name, " +
+            "holder_first_name, birth_date, birth_place, description, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ANNONCE = "INSERT INTO annonces (user_id, document_id, document_type, " +
+            "document_number, holder_name, holder_first_name, title, description, loss_date, loss_location, loss_city, " +
+            "loss_postal_code, reward_amount, status, urgent, contact_preference, views, expires_at, resolved_at, " +
+            "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_MESSAGE = "INSERT INTO messages (sender_id, receiver_id, announcement_id, " +
+            "content, is_read, message_type, created_at, updated_at, participant_low, participant_high) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CONVERSATION = "INSERT INTO conversations (owner_id, partner_id, " +
+            "announcement_id, last_message_id, last_message_at, last_message_preview, unread_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.seed.users:100000}")
+    private int userCount;
+
+    @Value("${app.seed.annonces:300000}")
+    private int annonceCount;
+
+    @Value("${app.seed.found-documents:50000}")
+    private int foundDocumentCount;
+
+    @Value("${app.seed.conversations:150000}")
+    private int conversationCount;
+
+    @Value("${app.seed.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${app.seed.password:loadtest123}")
+    private String password;
+
+    private TransactionTemplate transactionTemplate;
+
+    // Instant de référence de toutes les dates générées
+    private LocalDateTime now;
+
+    // Annonces semées, par index de génération
+    private long[] annonceIds;
+    private int[] annonceOwners;
+    private LocalDateTime[] annonceCreatedAt;
+    private DocumentType[] annonceTypes;
+    private String[] annonceHolderNames;
+    private String[] annonceHolderFirstNames;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (userCount <= 0) {
+            return;
+        }
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email = ?", Integer.class,
+                SeedDistributions.email(1));
+        if (existing != null && existing > 0) {
+            log.info("Données de charge déjà présentes, génération ignorée");
+            return;
+        }
+
+        long start = System.nanoTime();
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        log.info("Génération des données de charge : {} utilisateurs, {} annonces, {} documents trouvés, " +
+                "{} conversations (graine {})", userCount, annonceCount, foundDocumentCount, conversationCount,
+                randomSeed);
+
+        long[] userIds = seedUsers(new SplittableRandom(randomSeed));
+        seedAnnonces(userIds, new SplittableRandom(randomSeed + 1));
+        seedFoundDocuments(new SplittableRandom(randomSeed + 2));
+        long messages = seedConversations(userIds, new SplittableRandom(randomSeed + 3));
+
+        log.info("Données de charge générées en {} s ({} messages)",
+                (System.nanoTime() - start) / 1_000_000_000, messages);
+        annonceIds = null;
+        annonceOwners = null;
+        annonceCreatedAt = null;
+        annonceTypes = null;
+        annonceHolderNames = null;
+        annonceHolderFirstNames = null;
+    }
+
+    private long[] seedUsers(SplittableRandom random) {
+        // Un seul hachage BCrypt : le coût est celui de la connexion, pas de la génération
+        String passwordHash = passwordEncoder.encode(password);
+        long[] userIds = new long[userCount];
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        int inserted = 0;
+        for (int index = 0; index < userCount; index++) {
+            Timestamp createdAt = timestamp(now.minusMinutes(random.nextInt(HISTORY_DAYS * 24 * 60)));
+            rows.add(new Object[] { SeedDistributions.firstName(random), SeedDistributions.lastName(random),
+                    SeedDistributions.email(index + 1L), SeedDistributions.phone(index + 1L), passwordHash,
+                    createdAt, createdAt });
+            if (rows.size() == batchSize || index == userCount - 1) {
+                long[] ids = insertAndFetchIds("users", INSERT_USER, rows, batch -> {
+                    List<Object[]> roles = new ArrayList<>(batch.length);
+                    for (long id : batch) {
+                        roles.add(new Object[] { id });
+                    }
+                    jdbcTemplate.batchUpdate(INSERT_ROLE, roles);
+                });
+                System.arraycopy(ids, 0, userIds, inserted, ids.length);
+                inserted += ids.length;
+                rows.clear();
+                logProgress("utilisateurs", inserted - ids.length, inserted, userCount);
+            }
+        }
+        return userIds;
+    }
+
+    private void seedAnnonces(long[] userIds, SplittableRandom random) {
+        annonceIds = new long[annonceCount];
+        annonceOwners = new int[annonceCount];
+        annonceCreatedAt = new LocalDateTime[annonceCount];
+        annonceTypes = new DocumentType[annonceCount];
+        annonceHolderNames = new String[annonceCount];
+        annonceHolderFirstNames = new String[annonceCount];
+
+        List<Object[]> documents = new ArrayList<>(batchSize);
+        int first = 0;
+        for (int index = 0; index < annonceCount; index++) {
+            DocumentType type = SeedDistributions.documentType(random);
+            String holderName = SeedDistributions.lastName(random);
+            String holderFirstName = SeedDistributions.firstName(random);
+            SeedDistributions.City birthPlace = SeedDistributions.city(random);
+            // Annonces plus nombreuses dans les semaines récentes
+            double age = random.nextDouble();
+            LocalDateTime createdAt = now.minusMinutes((long) (age * age * HISTORY_DAYS * 24 * 60));
+
+            annonceOwners[index] = random.nextInt(userIds.length);
+            annonceCreatedAt[index] = createdAt;
+            annonceTypes[index] = type;
+            annonceHolderNames[index] = holderName;
+            annonceHolderFirstNames[index] = holderFirstName;
+            documents.add(documentRow(type, holderName, holderFirstName, birthPlace, null, createdAt, random));
+
+            if (documents.size() == batchSize || index == annonceCount - 1) {
+                long[] documentIds = insertAndFetchIds("documents", INSERT_DOCUMENT, documents);
+                List<Object[]> annonces = new ArrayList<>(documentIds.length);
+                for (int offset = 0; offset < documentIds.length; offset++) {
+                    annonces.add(annonceRow(first + offset, userIds, documentIds[offset], random));
+                }
+                long[] ids = insertAndFetchIds("annonces", INSERT_ANNONCE, annonces);
+                System.arraycopy(ids, 0, annonceIds, first, ids.length);
+                first += ids.length;
+                documents.clear();
+                logProgress("annonces", first - ids.length, first, annonceCount);
+            }
+        }
+    }
+
+    private Object[] annonceRow(int index, long[] userIds, long documentId, SplittableRandom random) {
+        DocumentType type = annonceTypes[index];
+        LocalDateTime createdAt = annonceCreatedAt[index];
+        LocalDateTime expiresAt = createdAt.plusDays(VALIDITY_DAYS);
+        SeedDistributions.City city = SeedDistributions.city(random);
+        String location = SeedDistributions.location(random);
+        AnnouncementStatus status = status(expiresAt.isBefore(now), random);
+        LocalDateTime resolvedAt = status == AnnouncementStatus.RESOLVED
+                ? min(createdAt.plusHours(1 + random.nextInt(VALIDITY_DAYS * 24)), now)
+                : null;
+        Double reward = random.nextInt(4) == 0 ? REWARDS[random.nextInt(REWARDS.length)] : null;
+        int views = (int) (-Math.log(1.0 - random.nextDouble()) * 40);
+
+        return new Object[] { userIds[annonceOwners[index]], documentId, type.name(), documentNumber(type, random),
+                annonceHolderNames[index], annonceHolderFirstNames[index],
+                "Perte : " + type.getDisplayName() + " – " + location + ", " + city.name(),
+                type.getDisplayName() + " au nom de " + annonceHolderFirstNames[index] + " "
+                        + annonceHolderNames[index] + ". Lieu de perte : " + location + ", " + city.name() + ".",
+                Date.valueOf(createdAt.toLocalDate().minusDays(random.nextInt(8))), location, city.name(),
+                city.postalCode(), reward, status.name(), random.nextInt(10) == 0,
+                CONTACT_PREFERENCES[random.nextInt(CONTACT_PREFERENCES.length)], views, timestamp(expiresAt),
+                resolvedAt != null ? timestamp(resolvedAt) : null, timestamp(createdAt),
+                timestamp(resolvedAt != null ? resolvedAt : createdAt) };
+    }
+
+    private static AnnouncementStatus status(boolean pastExpiry, SplittableRandom random) {
+        int draw = random.nextInt(100);
+        if (pastExpiry) {
+            return draw < 55 ? AnnouncementStatus.EXPIRED
+                    : draw < 85 ? AnnouncementStatus.RESOLVED : AnnouncementStatus.CANCELLED;
+        }
+        return draw < 85 ? AnnouncementStatus.ACTIVE
+                : draw < 95 ? AnnouncementStatus.RESOLVED : AnnouncementStatus.CANCELLED;
+    }
+
+    private static String documentNumber(DocumentType type, SplittableRandom random) {
+        return switch (type) {
+            case CARTE_IDENTITE -> String.format("1 %03d %04d %05d", random.nextInt(1000),
+                    1950 + random.nextInt(57), random.nextInt(100000));
+            case PASSEPORT -> String.format("A%08d", random.nextInt(100_000_000));
+            case CARTE_GRISE -> String.format("DK-%04d-%s", random.nextInt(10000),
+                    (char) ('A' + random.nextInt(26)) + "" + (char) ('A' + random.nextInt(26)));
+            default -> String.format("%s-%07d", type.name().substring(0, 3), random.nextInt(10_000_000));
+        };
+    }
+
+    /**
+     * Documents enregistrés sans annonce ; une partie reprend le titulaire
+     * et le type d'une annonce semée pour que le rapprochement ait des
+     * correspondances à trouver.
+     */
+    private void seedFoundDocuments(SplittableRandom random) {
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        int inserted = 0;
+        for (int index = 0; index < foundDocumentCount; index++) {
+            DocumentType type;
+            String holderName;
+            String holderFirstName;
+            if (annonceCount > 0 && random.nextInt(10) < 3) {
+                int annonce = random.nextInt(annonceCount);
+                type = annonceTypes[annonce];
+                holderName = annonceHolderNames[annonce];
+                holderFirstName = annonceHolderFirstNames[annonce];
+            } else {
+                type = SeedDistributions.documentType(random);
+                holderName = SeedDistributions.lastName(random);
+                holderFirstName = SeedDistributions.firstName(random);
+            }
+            LocalDateTime createdAt = now.minusMinutes(random.nextInt(HISTORY_DAYS * 24 * 60));
+            rows.add(documentRow(type, holderName, holderFirstName, SeedDistributions.city(random),
+                    "Trouvé vers " + SeedDistributions.location(random), createdAt, random));
+            if (rows.size() == batchSize || index == foundDocumentCount - 1) {
+                inTransaction(() -> jdbcTemplate.batchUpdate(INSERT_DOCUMENT, rows));
+                logProgress("documents trouvés", inserted, inserted + rows.size(), foundDocumentCount);
+                inserted += rows.size();
+                rows.clear();
+            }
+        }
+    }
+
+    private static Object[] documentRow(DocumentType type, String holderName, String holderFirstName,
+            SeedDistributions.City birthPlace, String description, LocalDateTime createdAt,
+            SplittableRandom random) {
+        LocalDate birthDate = LocalDate.of(1950 + random.nextInt(57), 1 + random.nextInt(12), 1 + random.nextInt(28));
+        return new Object[] { type.getDisplayName() + " de " + holderFirstName + " " + holderName, type.name(),
+                holderName, holderFirstName, Date.valueOf(birthDate), birthPlace.name(), description,
+                timestamp(createdAt), timestamp(createdAt) };
+    }
+
+    /**
+     * Fils de discussion entre le propriétaire d'une annonce et un autre
+     * utilisateur, ouverts par ce dernier. Les messages d'un lot sont insérés
+     * d'abord, puis les deux lignes {@code conversations} de chaque fil avec
+     * l'identifiant du dernier message : la table est déjà remplie quand
+     * {@link ConversationService} vérifie au démarrage s'il faut la
+     * reconstruire.
+     */
+    private long seedConversations(long[] userIds, SplittableRandom random) {
+        if (annonceCount == 0 || userIds.length < 2) {
+            return 0;
+        }
+        Set<Long> threadKeys = new HashSet<>();
+        List<Discussion> threads = new ArrayList<>();
+        List<Object[]> messages = new ArrayList<>(batchSize);
+        long messageCount = 0;
+        int created = 0;
+        for (int index = 0; index < conversationCount; index++) {
+            int annonce = random.nextInt(annonceCount);
+            int owner = annonceOwners[annonce];
+            int partner = random.nextInt(userIds.length - 1);
+            if (partner >= owner) {
+                partner++;
+            }
+            // Un seul fil par (annonce, interlocuteur) : contrainte unique de conversations
+            if (!threadKeys.add((long) annonce * userIds.length + partner)) {
+                continue;
+            }
+            Discussion thread = new Discussion(annonceIds[annonce], userIds[owner], userIds[partner]);
+            addMessages(thread, annonceCreatedAt[annonce], messages, random);
+            if (thread.messageCount > 0) {
+                threads.add(thread);
+            }
+
+            if (messages.size() >= batchSize || index == conversationCount - 1) {
+                messageCount += messages.size();
+                int before = created;
+                created += threads.size();
+                flushThreads(threads, messages);
+                logProgress("conversations", before, created, conversationCount);
+            }
+        }
+        if (!threads.isEmpty()) {
+            messageCount += messages.size();
+            flushThreads(threads, messages);
+        }
+        return messageCount;
+    }
+
+    private void addMessages(Discussion thread, LocalDateTime annonceCreatedAt, List<Object[]> messages,
+            SplittableRandom random) {
+        int length = SeedDistributions.conversationLength(random);
+        LocalDateTime sentAt = annonceCreatedAt.plusMinutes(60 + random.nextInt(3 * 24 * 60));
+        long low = Math.min(thread.ownerId, thread.partnerId);
+        long high = Math.max(thread.ownerId, thread.partnerId);
+        boolean lastUnread = random.nextInt(10) < 4;
+        for (int position = 0; position < length && !sentAt.isAfter(now); position++) {
+            boolean fromPartner = position % 2 == 0;
+            String content = fromPartner ? PARTNER_MESSAGES[random.nextInt(PARTNER_MESSAGES.length)]
+                    : OWNER_MESSAGES[random.nextInt(OWNER_MESSAGES.length)];
+            boolean last = position == length - 1 || sentAt.plusMinutes(2).isAfter(now);
+            boolean read = !(last && lastUnread);
+            long sender = fromPartner ? thread.partnerId : thread.ownerId;
+            long receiver = fromPartner ? thread.ownerId : thread.partnerId;
+
+            messages.add(new Object[] { sender, receiver, thread.announcementId, content, read,
+                    position == 0 ? "CONTACT" : "RESPONSE", timestamp(sentAt), timestamp(sentAt), low, high });
+            thread.messageCount++;
+            thread.lastSenderIsPartner = fromPartner;
+            thread.lastContent = content;
+            thread.lastAt = sentAt;
+            thread.lastUnread = !read;
+            sentAt = sentAt.plusMinutes(2 + random.nextInt(12 * 60));
+        }
+    }
+
+    private void flushThreads(List<Discussion> threads, List<Object[]> messages) {
+        long[] messageIds = insertAndFetchIds("messages", INSERT_MESSAGE, messages);
+        List<Object[]> conversations = new ArrayList<>(threads.size() * 2);
+        int offset = 0;
+        for (Discussion thread : threads) {
+            offset += thread.messageCount;
+            long lastMessageId = messageIds[offset - 1];
+            Timestamp lastAt = timestamp(thread.lastAt);
+            String preview = thread.lastContent.length() <= PREVIEW_LENGTH ? thread.lastContent
+                    : thread.lastContent.substring(0, PREVIEW_LENGTH);
+            int ownerUnread = thread.lastUnread && thread.lastSenderIsPartner ? 1 : 0;
+            int partnerUnread = thread.lastUnread && !thread.lastSenderIsPartner ? 1 : 0;
+            conversations.add(new Object[] { thread.ownerId, thread.partnerId, thread.announcementId, lastMessageId,
+                    lastAt, preview, ownerUnread });
+            conversations.add(new Object[] { thread.partnerId, thread.ownerId, thread.announcementId, lastMessageId,
+                    lastAt, preview, partnerUnread });
+        }
+        inTransaction(() -> jdbcTemplate.batchUpdate(INSERT_CONVERSATION, conversations));
+        threads.clear();
+        messages.clear();
+    }
+
+    private long[] insertAndFetchIds(String table, String sql, List<Object[]> rows) {
+        return insertAndFetchIds(table, sql, rows, ids -> {
+        });
+    }
+
+    /**
+     * Insère un lot dans une transaction et renvoie les identifiants générés
+     * dans l'ordre des lignes (le générateur est seul à écrire pendant le
+     * démarrage). {@code then} s'exécute dans la même transaction.
+     */
+    private long[] insertAndFetchIds(String table, String sql, List<Object[]> rows,
+            Consumer<long[]> then) {
+        return transactionTemplate.execute(status -> {
+            Long maxBefore = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            jdbcTemplate.batchUpdate(sql, rows);
+            long[] ids = jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE id > ? ORDER BY id",
+                    Long.class, maxBefore).stream().mapToLong(Long::longValue).toArray();
+            if (ids.length != rows.size()) {
+                throw new IllegalStateException("Écriture concurrente dans " + table + " pendant la génération");
+            }
+            then.accept(ids);
+            return ids;
+        });
+    }
+
+    private void inTransaction(Runnable action) {
+        transactionTemplate.executeWithoutResult(status -> action.run());
+    }
+
+    private void logProgress(String what, long before, long done, long total) {
+        long step = batchSize * 50L;
+        if (done == total || before / step != done / step) {
+            log.info("  {} : {}/{}", what, done, total);
+        }
+    }
+
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        return Timestamp.valueOf(dateTime);
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    // Fil en cours de génération, jusqu'à l'écriture de ses conversations
+    private static final class Discussion {
+
+        final long announcementId;
+        final long ownerId;
+        final long partnerId;
+        int messageCount;
+        boolean lastSenderIsPartner;
+        boolean lastUnread;
+        String lastContent;
+        LocalDateTime lastAt;
+
+        Discussion(long announcementId, long ownerId, long partnerId) {
+            this.announcementId = announcementId;
+            this.ownerId = ownerId;
+            this.partnerId = partnerId;
+        }
+    }
+}
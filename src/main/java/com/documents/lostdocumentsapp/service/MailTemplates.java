@@ -0,0 +1,122 @@
+package com.documents.lostdocumentsapp.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gabarits des emails ({@code classpath:templates/mail/*.txt}), compilés une
+ * seule fois au démarrage.
+ *
+ * <p>
+ * Un gabarit est découpé en segments : textes fixes et variables
+ * {@code {{nom}}} en alternance. Le rendu se contente de concaténer les
+ * segments dans un tampon réutilisé par thread, à partir d'un modèle à plat
+ * déjà extrait des entités : il ne déclenche aucun chargement JPA. Une
+ * variable absente du modèle est rendue vide.
+ */
+@Component
+public class MailTemplates {
+
+    private static final Logger log = LoggerFactory.getLogger(MailTemplates.class);
+
+    private static final String LOCATION = "classpath:templates/mail/*.txt";
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    // Au-delà, le tampon n'est pas conservé pour éviter de retenir un gros corps de message
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final Map<String, Template> templates = new HashMap<>();
+
+    @PostConstruct
+    void compileAll() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(LOCATION);
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            if (filename == null) {
+                continue;
+            }
+            try (InputStream in = resource.getInputStream()) {
+                String name = filename.substring(0, filename.length() - ".txt".length());
+                templates.put(name, Template.compile(name, new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+            }
+        }
+        log.info("{} gabarits d'email compilés", templates.size());
+    }
+
+    public String render(String name, Map<String, ?> model) {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Gabarit d'email inconnu : " + name);
+        }
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        template.renderTo(buffer, model);
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Gabarit compilé : {@code literals[i]} précède {@code variables[i]}, le
+     * dernier texte fixe suit la dernière variable.
+     */
+    static final class Template {
+
+        private final String[] literals;
+        private final String[] variables;
+
+        private Template(String[] literals, String[] variables) {
+            this.literals = literals;
+            this.variables = variables;
+        }
+
+        static Template compile(String name, String source) {
+            List<String> literals = new ArrayList<>();
+            List<String> variables = new ArrayList<>();
+            int position = 0;
+            while (true) {
+                int open = source.indexOf(OPEN, position);
+                if (open < 0) {
+                    break;
+                }
+                int close = source.indexOf(CLOSE, open + OPEN.length());
+                if (close < 0) {
+                    throw new IllegalStateException("Variable non fermée dans le gabarit " + name + " à la position " + open);
+                }
+                literals.add(source.substring(position, open));
+                variables.add(source.substring(open + OPEN.length(), close).trim());
+                position = close + CLOSE.length();
+            }
+            literals.add(source.substring(position));
+            return new Template(literals.toArray(new String[0]), variables.toArray(new String[0]));
+        }
+
+        void renderTo(StringBuilder out, Map<String, ?> model) {
+            for (int i = 0; i < variables.length; i++) {
+                out.append(literals[i]);
+                Object value = model.get(variables[i]);
+                if (value != null) {
+                    out.append(value);
+                }
+            }
+            out.append(literals[variables.length]);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.documents.lostdocumentsapp.service;
+
+import com.documents.lostdocumentsapp.model.Message;
+import com.documents.lostdocumentsapp.util.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Registre des flux Server-Sent Events ouverts sur ce nœud, par utilisateur.
+ *
+ * <p>
+ * Une connexion inactive ne retient aucun thread : l'émetteur est tenu par
+ * Tomcat en mode asynchrone. Les envois se font après commit, sur des threads
+ * virtuels, pour qu'un client lent ne ralentisse pas l'expéditeur. Un
+ * commentaire périodique garde les connexions ouvertes à travers les proxys et
+ * détecte les clients partis.
+ */
+@Component
+public class MessagePushService {
+
+    private static final Logger log = LoggerFactory.getLogger(MessagePushService.class);
+
+    @Value("${app.messages.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Map<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SseEmitter subscribe(Long userId, long unreadCount) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitters.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(emitter);
+        emitter.onCompletion(() -> unregister(userId, emitter));
+        emitter.onTimeout(() -> unregister(userId, emitter));
+        emitter.onError(e -> unregister(userId, emitter));
+        send(userId, emitter, unreadCountEvent(unreadCount));
+        return emitter;
+    }
+
+    public boolean hasSubscribers(Long userId) {
+        Set<SseEmitter> userEmitters = emitters.get(userId);
+        return userEmitters != null && !userEmitters.isEmpty();
+    }
+
+    public int getConnectionCount() {
+        return emitters.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Pousse le nouveau message et le nombre de non lus au destinataire, une
+     * fois la transaction validée.
+     */
+    public void pushMessageAfterCommit(Message message, long unreadCount) {
+        Long receiverId = message.getReceiver().getId();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", message.getId());
+        payload.put("senderId", message.getSender().getId());
+        payload.put("announcementId", message.getAnnouncement() != null ? message.getAnnouncement().getId() : null);
+        payload.put("messageType", message.getMessageType());
+        payload.put("content", message.getContent());
+        payload.put("createdAt", message.getCreatedAt());
+        TransactionHooks.afterCommit(() -> sender.execute(() -> {
+            broadcast(receiverId, () -> SseEmitter.event().name("message").id(String.valueOf(payload.get("id")))
+                    .data(payload));
+            broadcast(receiverId, () -> unreadCountEvent(unreadCount));
+        }));
+    }
+
+    /**
+     * Pousse le nombre de non lus à l'utilisateur une fois la transaction
+     * validée, après une lecture ou une suppression de messages.
+     */
+    public void pushUnreadCountAfterCommit(Long userId, long unreadCount) {
+        TransactionHooks.afterCommit(() -> sender.execute(
+                () -> broadcast(userId, () -> unreadCountEvent(unreadCount))));
+    }
+
+    @Scheduled(fixedDelayString = "${app.messages.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        emitters.forEach((userId, userEmitters) -> {
+            for (SseEmitter emitter : userEmitters) {
+                sender.execute(() -> send(userId, emitter, SseEmitter.event().comment("ping")));
+            }
+        });
+    }
+
+    // Un constructeur d'événement par émetteur : il n'est pas réutilisable après envoi
+    private void broadcast(Long userId, Supplier<SseEmitter.SseEventBuilder> event) {
+        Set<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters != null) {
+            for (SseEmitter emitter : userEmitters) {
+                send(userId, emitter, event.get());
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder unreadCountEvent(long unreadCount) {
+        return SseEmitter.event().name("unread-count").data(Map.of("unreadCount", unreadCount));
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client déconnecté : l'émetteur est retiré et clos
+            unregister(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void unregister(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        emitters.values().forEach(userEmitters -> userEmitters.forEach(SseEmitter::complete));
+        emitters.clear();
+        sender.shutdown();
+        log.info("Flux de messages fermés");
+    }
+}
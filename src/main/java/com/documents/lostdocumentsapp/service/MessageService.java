@@ -1,26 +1,59 @@
 package com.documents.lostdocumentsapp.service;
 
+import com.documents.lostdocumentsapp.dto.ConversationSummary;
+import com.documents.lostdocumentsapp.dto.CursorPage;
 import com.documents.lostdocumentsapp.model.Annonce;
 import com.documents.lostdocumentsapp.model.Message;
 import com.documents.lostdocumentsapp.model.User;
+import com.documents.lostdocumentsapp.repository.AnnonceRepository;
 import com.documents.lostdocumentsapp.repository.MessageRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Service
 @Transactional
+@Timed("service.calls")
 public class MessageService {
 
+    private static final Logger log = LoggerFactory.getLogger(MessageService.class);
+
+    private static final int BACKFILL_BATCH_SIZE = 5000;
+
+    @Value("${app.messages.mark-read-batch-size:1000}")
+    private int markReadBatchSize;
+
     @Autowired
     private MessageRepository messageRepository;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AnnonceRepository annonceRepository;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private MessagePushService messagePushService;
+
     public Message sendMessage(Long senderId, Long receiverId, Long announcementId, String content,
             String messageType) {
         User sender = userService.getUserById(senderId);
@@ -29,13 +62,17 @@ public class MessageService {
         Message message = new Message();
         message.setSender(sender);
         message.setReceiver(receiver);
+        message.setAnnouncement(annonceRepository.getReferenceById(announcementId));
         message.setContent(content);
         message.setMessageType(messageType != null ? messageType : "CONTACT");
         message.setIsRead(false);
         message.setCreatedAt(LocalDateTime.now());
         message.setUpdatedAt(LocalDateTime.now());
 
-        return messageRepository.save(message);
+        Message savedMessage = messageRepository.save(message);
+        conversationService.recordMessage(savedMessage);
+        pushToReceiver(savedMessage);
+        return savedMessage;
     }
 
     public Message getMessageById(Long messageId) {
@@ -43,16 +80,45 @@ public class MessageService {
                 .orElseThrow(() -> new RuntimeException("Message non trouvé"));
     }
 
-    public List<Message> getMessagesByUser(Long userId) {
+    public Page<Message> getMessagesByUser(Long userId, Pageable pageable) {
         User user = userService.getUserById(userId);
-        return messageRepository.findByUserConversations(user);
+        return messageRepository.findByUserConversations(user, pageable);
     }
 
-    public List<Message> getConversationBetweenUsers(Long userId1, Long userId2) {
-        User user1 = userService.getUserById(userId1);
-        User user2 = userService.getUserById(userId2);
+    public Page<ConversationSummary> getInbox(Long userId, Pageable pageable) {
+        return conversationService.getInbox(userId, pageable);
+    }
+
+    /**
+     * Page d'historique entre deux utilisateurs, antérieure au message
+     * {@code beforeMessageId} (ou la plus récente s'il est nul). Les messages
+     * sont rendus dans l'ordre chronologique ; {@code nextCursor} est
+     * l'identifiant du plus ancien, à repasser en {@code before}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Message> getConversationHistory(Long userId, Long otherUserId, Long beforeMessageId,
+            int limit) {
+        long low = Math.min(userId, otherUserId);
+        long high = Math.max(userId, otherUserId);
+        // Une ligne de plus pour savoir s'il reste des messages plus anciens
+        PageRequest page = PageRequest.of(0, limit + 1);
+
+        List<Message> rows;
+        if (beforeMessageId == null) {
+            rows = messageRepository.findConversationLatest(low, high, page);
+        } else {
+            Message before = messageRepository.findById(beforeMessageId)
+                    .filter(m -> Long.valueOf(low).equals(m.getParticipantLow())
+                            && Long.valueOf(high).equals(m.getParticipantHigh()))
+                    .orElseThrow(() -> new IllegalArgumentException("Curseur invalide"));
+            rows = messageRepository.findConversationBefore(low, high, before.getCreatedAt(), before.getId(), page);
+        }
 
-        return messageRepository.findConversationBetweenUsers(user1, user2);
+        boolean hasNext = rows.size() > limit;
+        List<Message> content = new ArrayList<>(hasNext ? rows.subList(0, limit) : rows);
+        String nextCursor = hasNext ? String.valueOf(content.get(content.size() - 1).getId()) : null;
+        Collections.reverse(content);
+        return new CursorPage<>(content, nextCursor, hasNext);
     }
 
     public List<Message> getUnreadMessages(Long userId) {
@@ -61,35 +127,47 @@ public class MessageService {
     }
 
     public List<User> getConversationPartners(Long userId) {
-        User user = userService.getUserById(userId);
-
-        List<User> senders = messageRepository.findDistinctSendersByReceiver(user);
-        List<User> receivers = messageRepository.findDistinctReceiversBySender(user);
-
-        // Combiner et dédupliquer les listes
-        senders.addAll(receivers);
-        return senders.stream().distinct().toList();
+        return conversationService.getPartners(userId);
     }
 
     public Message markAsRead(Long messageId) {
         Message message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new RuntimeException("Message non trouvé"));
 
+        boolean wasUnread = Boolean.FALSE.equals(message.getIsRead());
+        if (wasUnread) {
+            conversationService.recordRead(message);
+        }
         message.setIsRead(true);
         message.setUpdatedAt(LocalDateTime.now());
 
-        return messageRepository.save(message);
+        Message savedMessage = messageRepository.save(message);
+        if (wasUnread) {
+            pushUnreadCount(message.getReceiver().getId());
+        }
+        return savedMessage;
     }
 
-    public void markAllAsRead(Long userId) {
-        User user = userService.getUserById(userId);
-        List<Message> unreadMessages = messageRepository.findByReceiverAndIsReadFalse(user);
-
-        for (Message message : unreadMessages) {
-            message.setIsRead(true);
-            message.setUpdatedAt(LocalDateTime.now());
-            messageRepository.save(message);
+    /**
+     * Marque comme lus les messages reçus par l'utilisateur, jusqu'au message
+     * {@code upToMessageId} inclus s'il est fourni, sans charger les entités.
+     * Chaque lot de {@code app.messages.mark-read-batch-size} lignes est validé
+     * séparément ; retourne le nombre de messages marqués.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long markAllAsRead(Long userId, Long upToMessageId) {
+        long upTo = upToMessageId != null ? upToMessageId : Long.MAX_VALUE;
+        long total = 0;
+        int updated;
+        do {
+            updated = messageRepository.markReadBatch(userId, upTo, LocalDateTime.now(), markReadBatchSize);
+            total += updated;
+        } while (updated == markReadBatchSize);
+        if (total > 0) {
+            conversationService.recordAllRead(userId);
+            pushUnreadCount(userId);
         }
+        return total;
     }
 
     public Long getUnreadMessageCount(Long userId) {
@@ -101,7 +179,14 @@ public class MessageService {
         Message message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new RuntimeException("Message non trouvé"));
 
+        boolean wasUnread = Boolean.FALSE.equals(message.getIsRead());
+        if (wasUnread) {
+            conversationService.recordRead(message);
+        }
         messageRepository.delete(message);
+        if (wasUnread) {
+            pushUnreadCount(message.getReceiver().getId());
+        }
     }
 
     public List<Message> getMessagesBySender(Long userId) {
@@ -140,6 +225,52 @@ public class MessageService {
         message.setCreatedAt(LocalDateTime.now());
         message.setUpdatedAt(LocalDateTime.now());
 
-        return messageRepository.save(message);
+        Message savedMessage = messageRepository.save(message);
+        pushToReceiver(savedMessage);
+        return savedMessage;
+    }
+
+    /**
+     * Ouvre le flux temps réel de l'utilisateur ; le premier événement porte
+     * son nombre de messages non lus.
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(Long userId) {
+        return messagePushService.subscribe(userId, messageRepository.countUnreadMessagesByReceiverId(userId));
+    }
+
+    // Nouveau nombre de non lus après une lecture, compté seulement si l'utilisateur a un flux ouvert sur ce nœud
+    private void pushUnreadCount(Long userId) {
+        if (messagePushService.hasSubscribers(userId)) {
+            messagePushService.pushUnreadCountAfterCommit(userId,
+                    messageRepository.countUnreadMessagesByReceiverId(userId));
+        }
+    }
+
+    private void pushToReceiver(Message message) {
+        Long receiverId = message.getReceiver().getId();
+        if (messagePushService.hasSubscribers(receiverId)) {
+            messagePushService.pushMessageAfterCommit(message,
+                    messageRepository.countUnreadMessagesByReceiverId(receiverId));
+        }
+    }
+
+    // Messages créés avant l'ajout de la paire normalisée ; chaque lot est validé séparément
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillParticipants() {
+        try {
+            long total = 0;
+            int updated;
+            do {
+                updated = messageRepository.backfillParticipants(BACKFILL_BATCH_SIZE);
+                total += updated;
+            } while (updated == BACKFILL_BATCH_SIZE);
+            if (total > 0) {
+                log.info("Paire de participants renseignée pour {} messages", total);
+            }
+        } catch (RuntimeException e) {
+            log.error("Échec du renseignement des participants des messages", e);
+        }
     }
 }
@@ -0,0 +1,104 @@
+package com.documents.lostdocumentsapp.service;
+
+import com.documents.lostdocumentsapp.model.Personne;
+import com.documents.lostdocumentsapp.repository.PersonneRepository;
+import com.documents.lostdocumentsapp.util.TransactionHooks;
+import com.documents.lostdocumentsapp.util.TrigramIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index trigramme en mémoire des personnes (prénom, nom, email, ville), qui
+ * remplace les {@code LIKE '%x%'} de {@code PersonneRepository.findBySearchTerm}.
+ * Même cycle de vie que {@link DocumentSearchIndex}.
+ */
+@Component
+public class PersonneSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonneSearchIndex.class);
+
+    @Autowired
+    private PersonneRepository personneRepository;
+
+    @Value("${app.search.index.warmup-batch-size:5000}")
+    private int warmupBatchSize;
+
+    private final TrigramIndex textIndex = new TrigramIndex();
+    private final Set<Long> removedDuringWarmup = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread warmup = new Thread(this::loadAll, "personne-index-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Personnes dont une des colonnes de recherche contient le terme, de la
+     * plus récente à la plus ancienne ; {@code null} si le terme est trop court.
+     */
+    public TrigramIndex.Result searchText(String term, long offset, int limit) {
+        return ready ? textIndex.search(term, offset, limit) : null;
+    }
+
+    public void indexAfterCommit(Personne personne) {
+        Long id = personne.getId();
+        String firstName = personne.getFirstName();
+        String lastName = personne.getLastName();
+        String email = personne.getEmail();
+        String city = personne.getCity();
+        TransactionHooks.afterCommit(() -> textIndex.put(id, firstName, lastName, email, city));
+    }
+
+    public void removeAfterCommit(Long personneId) {
+        TransactionHooks.afterCommit(() -> {
+            if (!ready) {
+                removedDuringWarmup.add(personneId);
+            }
+            textIndex.remove(personneId);
+        });
+    }
+
+    private void loadAll() {
+        long start = System.currentTimeMillis();
+        long lastId = 0L;
+        int loaded = 0;
+        try {
+            List<Object[]> rows;
+            do {
+                rows = personneRepository.findSearchIndexRows(lastId, PageRequest.of(0, warmupBatchSize));
+                for (Object[] row : rows) {
+                    Long id = (Long) row[0];
+                    lastId = id;
+                    // Les écritures arrivées pendant le chargement sont plus récentes
+                    if (!removedDuringWarmup.contains(id) && textIndex.putIfAbsent(id, (String) row[1],
+                            (String) row[2], (String) row[3], (String) row[4])) {
+                        loaded++;
+                    }
+                }
+            } while (rows.size() == warmupBatchSize);
+            ready = true;
+            removedDuringWarmup.clear();
+            log.info("Index de recherche des personnes prêt : {} personnes en {} ms",
+                    loaded, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Échec du chargement de l'index des personnes, repli sur SQL", e);
+        }
+    }
+}
@@ -2,9 +2,13 @@ package com.documents.lostdocumentsapp.service;
 
 import com.documents.lostdocumentsapp.model.Personne;
 import com.documents.lostdocumentsapp.repository.PersonneRepository;
+import com.documents.lostdocumentsapp.util.IndexedLookups;
+import com.documents.lostdocumentsapp.util.TrigramIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,10 +23,15 @@ public class PersonneService {
     @Autowired
     private PersonneRepository personneRepository;
     
+    @Autowired
+    private PersonneSearchIndex personneSearchIndex;
+    
     public Personne createPersonne(Personne personne) {
         personne.setCreatedAt(LocalDateTime.now());
         personne.setUpdatedAt(LocalDateTime.now());
-        return personneRepository.save(personne);
+        Personne savedPersonne = personneRepository.save(personne);
+        personneSearchIndex.indexAfterCommit(savedPersonne);
+        return savedPersonne;
     }
     
     public Personne updatePersonne(Long personneId, Personne personneDetails) {
@@ -40,7 +49,9 @@ public class PersonneService {
         personne.setIsVerified(personneDetails.getIsVerified());
         personne.setUpdatedAt(LocalDateTime.now());
         
-        return personneRepository.save(personne);
+        Personne savedPersonne = personneRepository.save(personne);
+        personneSearchIndex.indexAfterCommit(savedPersonne);
+        return savedPersonne;
     }
     
     public Personne getPersonneById(Long personneId) {
@@ -56,8 +67,15 @@ public class PersonneService {
         return personneRepository.findAll();
     }
     
-    public List<Personne> searchPersonnes(String searchTerm) {
-        return personneRepository.findBySearchTerm(searchTerm);
+    // Index trigramme en mémoire, repli sur SQL tant qu'il n'est pas prêt ou pour un terme trop court
+    public Slice<Personne> searchPersonnes(String searchTerm, Pageable pageable) {
+        TrigramIndex.Result result = personneSearchIndex.searchText(searchTerm, pageable.getOffset(),
+                pageable.getPageSize());
+        if (result == null) {
+            return personneRepository.findBySearchTerm(searchTerm, pageable);
+        }
+        List<Personne> personnes = IndexedLookups.findAllInOrder(personneRepository, result.ids(), Personne::getId);
+        return new SliceImpl<>(personnes, pageable, result.hasNext());
     }
     
     public List<Personne> getPersonnesByCity(String city) {
@@ -101,6 +119,7 @@ public class PersonneService {
     public void deletePersonne(Long personneId) {
         Personne personne = getPersonneById(personneId);
         personneRepository.delete(personne);
+        personneSearchIndex.removeAfterCommit(personneId);
     }
     
     public Long getPersonneCount() {
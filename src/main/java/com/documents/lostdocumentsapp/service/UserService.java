@@ -4,6 +4,9 @@ import com.documents.lostdocumentsapp.model.AuthProvider;
 import com.documents.lostdocumentsapp.model.Role;
 import com.documents.lostdocumentsapp.model.User;
 import com.documents.lostdocumentsapp.repository.UserRepository;
+import com.documents.lostdocumentsapp.security.JwtAuthenticationCache;
+import com.documents.lostdocumentsapp.util.TransactionHooks;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -19,6 +22,7 @@ import java.util.Set;
 
 @Service
 @Transactional
+@Timed("service.calls")
 public class UserService implements UserDetailsService {
 
     @Autowired
@@ -27,6 +31,9 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JwtAuthenticationCache jwtAuthenticationCache;
+
     public User createUser(User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new RuntimeException("Un utilisateur avec cet email existe déjà");
@@ -73,6 +80,7 @@ public class UserService implements UserDetailsService {
             throw new RuntimeException("Ce téléphone est déjà utilisé");
         }
 
+        invalidateAuthentications(user.getEmail());
         user.setFirstName(userDetails.getFirstName());
         user.setLastName(userDetails.getLastName());
         user.setEmail(userDetails.getEmail());
@@ -107,6 +115,7 @@ public class UserService implements UserDetailsService {
 
         user.setIsActive(false);
         userRepository.save(user);
+        invalidateAuthentications(user.getEmail());
     }
 
     public User activateUser(Long userId) {
@@ -117,6 +126,7 @@ public class UserService implements UserDetailsService {
         user.setIsVerified(true);
         user.setUpdatedAt(LocalDateTime.now());
 
+        invalidateAuthentications(user.getEmail());
         return userRepository.save(user);
     }
 
@@ -127,6 +137,7 @@ public class UserService implements UserDetailsService {
         user.setIsActive(false);
         user.setUpdatedAt(LocalDateTime.now());
 
+        invalidateAuthentications(user.getEmail());
         return userRepository.save(user);
     }
 
@@ -137,6 +148,7 @@ public class UserService implements UserDetailsService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
 
+        invalidateAuthentications(user.getEmail());
         return userRepository.save(user);
     }
 
@@ -147,6 +159,7 @@ public class UserService implements UserDetailsService {
         user.setRoles(Set.of("ROLE_" + role.toUpperCase()));
         user.setUpdatedAt(LocalDateTime.now());
 
+        invalidateAuthentications(user.getEmail());
         return userRepository.save(user);
     }
 
@@ -182,6 +195,11 @@ public class UserService implements UserDetailsService {
         return userRepository.existsByPhone(phone);
     }
 
+    // Les tokens déjà en cache doivent refléter l'état du compte après validation
+    private void invalidateAuthentications(String email) {
+        TransactionHooks.afterCommit(() -> jwtAuthenticationCache.invalidateUser(email));
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         return userRepository.findByEmail(email)
@@ -0,0 +1,26 @@
+package com.documents.lostdocumentsapp.util;
+
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Chargement des entités désignées par un index en mémoire, dans l'ordre de
+ * l'index. Les identifiants supprimés entre-temps sont ignorés.
+ */
+public final class IndexedLookups {
+
+    private IndexedLookups() {
+    }
+
+    public static <T> List<T> findAllInOrder(CrudRepository<T, Long> repository, List<Long> ids,
+            Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        repository.findAllById(ids).forEach(entity -> byId.put(idOf.apply(entity), entity));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+}
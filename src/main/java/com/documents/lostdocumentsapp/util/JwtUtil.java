@@ -2,6 +2,9 @@ package com.documents.lostdocumentsapp.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.GrantedAuthority;
@@ -19,14 +22,38 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+
     @Value("${app.jwt.secret}")
     private String secret;
 
     @Value("${app.jwt.expiration}")
     private int expiration;
 
+    // Clé et parseur construits une seule fois (le JwtParser est immuable et thread-safe)
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
+    }
+
+    /**
+     * Vérifie la signature et l'expiration en une seule analyse et retourne
+     * toutes les revendications du token.
+     *
+     * @throws JwtException si le token est invalide ou expiré
+     */
+    public Claims parseClaims(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     public String extractUsername(String token) {
@@ -43,15 +70,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parseClaims(token);
     }
 
     // Génère un token à partir d'un UserDetails (ex: Spring Security)
@@ -74,9 +93,7 @@ public class JwtUtil {
 
         claims.put("authorities", authorities);
 
-        System.out.println("🔑 JWT Generation - User: " + user.getEmail());
-        System.out.println("🔑 JWT Generation - User roles: " + user.getRoles());
-        System.out.println("🔑 JWT Generation - Authorities in token: " + authorities);
+        log.debug("Génération du token JWT pour {} (autorités : {})", user.getEmail(), authorities);
 
         return createToken(claims, user.getEmail());
     }
@@ -96,16 +113,14 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
+        // L'analyse rejette déjà les tokens expirés
         final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return username.equals(userDetails.getUsername());
     }
 
     public Boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
@@ -113,7 +128,11 @@ public class JwtUtil {
     }
 
     public List<String> extractAuthorities(String token) {
-        Claims claims = extractAllClaims(token);
+        return extractAuthorities(extractAllClaims(token));
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> extractAuthorities(Claims claims) {
         return claims.get("authorities", List.class);
     }
 }
@@ -0,0 +1,314 @@
+package com.documents.lostdocumentsapp.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de noms propres tolérant aux variantes de graphie.
+ *
+ * <p>
+ * Chaque mot distinct du vocabulaire reçoit un numéro ; son code phonétique
+ * ({@link PhoneticEncoder}) et ses trigrammes renvoient vers ce numéro, et le
+ * numéro vers les identifiants indexés. Toutes les listes sont des tableaux
+ * primitifs. Un mot recherché correspond à un mot du vocabulaire égal (1,0),
+ * phonétiquement équivalent (0,9), dont il est le préfixe (0,8) ou à une ou
+ * deux modifications près selon sa longueur (0,85 / 0,75). Les candidats de
+ * cette dernière catégorie sont obtenus par les trigrammes avant le calcul de
+ * la distance. Tous les mots recherchés doivent correspondre ; les résultats
+ * sont classés par la somme des notes.
+ */
+public final class NameIndex {
+
+    private static final double EXACT = 1.0;
+    private static final double PHONETIC = 0.9;
+    private static final double PREFIX = 0.8;
+    private static final double ONE_EDIT = 0.85;
+    private static final double TWO_EDITS = 0.75;
+    private static final int ALPHABET = 37;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private String[] terms = new String[1024];
+    private LongList[] postings = new LongList[1024];
+    private int termCount;
+
+    private final Map<String, IntList> termsByCode = new HashMap<>();
+    private final Map<Integer, IntList> termsByTrigram = new HashMap<>();
+    private final Map<Long, int[]> termsById = new HashMap<>();
+
+    /**
+     * Remplace les mots indexés pour {@code id}.
+     */
+    public void put(long id, Collection<String> tokens) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            int[] ids = new int[tokens.size()];
+            int count = 0;
+            for (String token : tokens) {
+                if (!token.isEmpty()) {
+                    int termId = termId(token);
+                    postings[termId].add(id);
+                    ids[count++] = termId;
+                }
+            }
+            if (count > 0) {
+                termsById.put(id, count == ids.length ? ids : Arrays.copyOf(ids, count));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexe {@code id} seulement s'il ne l'est pas déjà ; utilisé au
+     * chargement, où les écritures concurrentes sont plus récentes.
+     */
+    public boolean putIfAbsent(long id, Collection<String> tokens) {
+        lock.writeLock().lock();
+        try {
+            if (termsById.containsKey(id)) {
+                return false;
+            }
+            put(id, tokens);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tous les identifiants correspondants, classés par pertinence décroissante
+     * (puis identifiant décroissant) ; l'appelant pagine sur cette liste.
+     * Renvoie {@code null} si la requête est vide ou si un de ses mots
+     * correspond à plus de {@code maxCandidates} identifiants.
+     */
+    public List<Long> search(String query, int maxCandidates) {
+        List<String> tokens = TextNormalizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        Map<Long, Double> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = new HashMap<>();
+                for (Map.Entry<Integer, Double> match : matchTerms(token).entrySet()) {
+                    LongList ids = postings[match.getKey()];
+                    double score = match.getValue();
+                    for (int i = 0; i < ids.size; i++) {
+                        long id = ids.values[i];
+                        if (scores == null || scores.containsKey(id)) {
+                            tokenScores.merge(id, score, Math::max);
+                        }
+                    }
+                    if (tokenScores.size() > maxCandidates) {
+                        return null;
+                    }
+                }
+                if (scores != null) {
+                    Map<Long, Double> previous = scores;
+                    tokenScores.replaceAll((id, score) -> score + previous.get(id));
+                }
+                scores = tokenScores;
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // Mots du vocabulaire correspondant à un mot recherché, avec leur note
+    private Map<Integer, Double> matchTerms(String token) {
+        Map<Integer, Double> matches = new HashMap<>();
+        Integer exact = termIds.get(token);
+        if (exact != null) {
+            matches.put(exact, EXACT);
+        }
+        IntList sameCode = termsByCode.get(PhoneticEncoder.encode(token));
+        if (sameCode != null) {
+            for (int i = 0; i < sameCode.size; i++) {
+                matches.merge(sameCode.values[i], PHONETIC, Math::max);
+            }
+        }
+        int maxEdits = token.length() <= 4 ? 0 : token.length() <= 7 ? 1 : 2;
+        for (int termId : trigramCandidates(token, maxEdits)) {
+            String term = terms[termId];
+            double score;
+            if (term.startsWith(token)) {
+                score = term.length() == token.length() ? EXACT : PREFIX;
+            } else if (maxEdits == 0) {
+                continue;
+            } else {
+                int distance = StringDistance.levenshtein(token, term, maxEdits);
+                if (distance > maxEdits) {
+                    continue;
+                }
+                score = distance <= 1 ? ONE_EDIT : TWO_EDITS;
+            }
+            matches.merge(termId, score, Math::max);
+        }
+        return matches;
+    }
+
+    /**
+     * Un mot à {@code k} modifications du mot recherché (ou qui le prolonge)
+     * contient au moins {@code n - 3k} de ses {@code n} trigrammes de tête : il
+     * figure donc dans l'une des {@code 3k + 1} listes les plus courtes.
+     */
+    private int[] trigramCandidates(String token, int maxEdits) {
+        int[] grams = trigrams(token, false);
+        IntList[] lists = new IntList[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            IntList list = termsByTrigram.get(grams[i]);
+            if (list == null && maxEdits == 0) {
+                return new int[0];
+            }
+            lists[i] = list != null ? list : IntList.EMPTY;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        int listCount = Math.min(lists.length, 3 * maxEdits + 1);
+        if (listCount == 1) {
+            return Arrays.copyOf(lists[0].values, lists[0].size);
+        }
+        BitSet candidates = new BitSet(termCount);
+        for (int i = 0; i < listCount; i++) {
+            for (int j = 0; j < lists[i].size; j++) {
+                candidates.set(lists[i].values[j]);
+            }
+        }
+        return candidates.stream().toArray();
+    }
+
+    private int termId(String term) {
+        Integer existing = termIds.get(term);
+        if (existing != null) {
+            return existing;
+        }
+        int termId = termCount++;
+        if (termId == terms.length) {
+            int capacity = terms.length * 2;
+            terms = Arrays.copyOf(terms, capacity);
+            postings = Arrays.copyOf(postings, capacity);
+        }
+        String code = PhoneticEncoder.encode(term);
+        terms[termId] = term;
+        postings[termId] = new LongList();
+        termIds.put(term, termId);
+        if (!code.isEmpty()) {
+            termsByCode.computeIfAbsent(code, c -> new IntList()).add(termId);
+        }
+        for (int gram : trigrams(term, true)) {
+            termsByTrigram.computeIfAbsent(gram, g -> new IntList()).add(termId);
+        }
+        return termId;
+    }
+
+    private void removeLocked(long id) {
+        int[] previous = termsById.remove(id);
+        if (previous != null) {
+            for (int termId : previous) {
+                postings[termId].remove(id);
+            }
+        }
+    }
+
+    // Trigrammes distincts de "$$mot" (et "$" final si demandé), codés en entier
+    private static int[] trigrams(String word, boolean withEnd) {
+        String padded = "$$" + word + (withEnd ? "$" : "");
+        int[] grams = new int[padded.length() - 2];
+        int count = 0;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            int gram = (symbol(padded.charAt(i)) * ALPHABET + symbol(padded.charAt(i + 1))) * ALPHABET
+                    + symbol(padded.charAt(i + 2));
+            boolean seen = false;
+            for (int j = 0; j < count && !seen; j++) {
+                seen = grams[j] == gram;
+            }
+            if (!seen) {
+                grams[count++] = gram;
+            }
+        }
+        return Arrays.copyOf(grams, count);
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return 1 + c - 'a';
+        }
+        if (c >= '0' && c <= '9') {
+            return 27 + c - '0';
+        }
+        return 0;
+    }
+
+    private static final class IntList {
+
+        static final IntList EMPTY = new IntList();
+
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private static final class LongList {
+
+        long[] values = new long[2];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        // L'ordre n'importe pas : le dernier élément prend la place libérée
+        void remove(long value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.documents.lostdocumentsapp.util;
+
+/**
+ * Code phonétique des noms propres, adapté aux graphies françaises et
+ * ouest-africaines : "Mamadou" et "Mamadu", "Ndiaye" et "N'Diaye", "Coulibaly"
+ * et "Koulibaly", "Seydou" et "Saïdou" ont le même code.
+ *
+ * <p>
+ * Le texte est d'abord normalisé par {@link TextNormalizer} et ses mots
+ * accolés, puis les graphies équivalentes sont réécrites, les lettres doublées
+ * fusionnées et les finales muettes retirées.
+ */
+public final class PhoneticEncoder {
+
+    // Réécritures appliquées de gauche à droite ; à chaque position, la première règle qui s'applique
+    private static final String[][] RULES = {
+            {"eau", "o"}, {"au", "o"}, {"ou", "u"}, {"oo", "u"},
+            {"ph", "f"}, {"ch", "s"}, {"sh", "s"}, {"kh", "k"}, {"dj", "j"},
+            {"qu", "k"}, {"ck", "k"}, {"gue", "ge"}, {"gui", "gi"},
+            {"ai", "e"}, {"ei", "e"}, {"ay", "e"}, {"ey", "e"},
+            {"ce", "se"}, {"ci", "si"}, {"cy", "si"},
+            {"y", "i"}, {"w", "u"}, {"c", "k"}, {"q", "k"}, {"z", "s"}, {"x", "ks"}, {"h", ""}
+    };
+
+    private PhoneticEncoder() {
+    }
+
+    public static String encode(String text) {
+        String word = TextNormalizer.normalize(text).replace(" ", "");
+        if (word.isEmpty()) {
+            return "";
+        }
+        StringBuilder rewritten = new StringBuilder(word.length());
+        int position = 0;
+        while (position < word.length()) {
+            String replacement = String.valueOf(word.charAt(position));
+            int consumed = 1;
+            for (String[] rule : RULES) {
+                if (word.startsWith(rule[0], position)) {
+                    replacement = rule[1];
+                    consumed = rule[0].length();
+                    break;
+                }
+            }
+            rewritten.append(replacement);
+            position += consumed;
+        }
+        StringBuilder code = new StringBuilder(rewritten.length());
+        for (int i = 0; i < rewritten.length(); i++) {
+            char c = rewritten.charAt(i);
+            if (code.isEmpty() || code.charAt(code.length() - 1) != c) {
+                code.append(c);
+            }
+        }
+        // Finales muettes : consonne puis "e"
+        if (code.length() > 3 && "dstx".indexOf(code.charAt(code.length() - 1)) >= 0) {
+            code.setLength(code.length() - 1);
+        }
+        if (code.length() > 2 && code.charAt(code.length() - 1) == 'e') {
+            code.setLength(code.length() - 1);
+        }
+        return code.toString();
+    }
+}
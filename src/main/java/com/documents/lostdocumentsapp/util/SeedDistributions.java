@@ -0,0 +1,143 @@
+package com.documents.lostdocumentsapp.util;
+
+import com.documents.lostdocumentsapp.model.DocumentType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Distributions des données de charge, partagées par le générateur
+ * ({@code LoadTestDataGenerator}) et le pilote de charge du module
+ * {@code benchmarks} pour que les recherches visent les mêmes villes et noms
+ * que les données semées.
+ *
+ * <p>
+ * Villes et noms de famille suivent une loi de Zipf (Dakar et les patronymes
+ * les plus courants dominent), les types de document un mélange pondéré et la
+ * longueur des conversations une loi géométrique.
+ */
+public final class SeedDistributions {
+
+    public static final String EMAIL_DOMAIN = "loadtest.local";
+
+    public record City(String name, String postalCode) {
+    }
+
+    // Par population décroissante : le rang fixe le poids de Zipf
+    public static final List<City> CITIES = List.of(
+            new City("Dakar", "10200"), new City("Pikine", "13000"), new City("Touba", "21000"),
+            new City("Thiès", "21000"), new City("Guédiawaye", "13100"), new City("Rufisque", "20000"),
+            new City("Saint-Louis", "32000"), new City("Kaolack", "26000"), new City("Mbour", "23000"),
+            new City("Ziguinchor", "27000"), new City("Diourbel", "24000"), new City("Louga", "28000"),
+            new City("Tambacounda", "26500"), new City("Kolda", "27500"), new City("Richard-Toll", "32100"),
+            new City("Fatick", "25000"), new City("Matam", "33000"), new City("Kaffrine", "26200"),
+            new City("Sédhiou", "27100"), new City("Kédougou", "26700"));
+
+    public static final List<String> LAST_NAMES = List.of(
+            "Diop", "Ndiaye", "Fall", "Sow", "Ba", "Diallo", "Gueye", "Faye", "Sarr", "Mbaye",
+            "Cissé", "Sy", "Thiam", "Seck", "Niang", "Diouf", "Kane", "Touré", "Camara", "Sène",
+            "Dieng", "Sall", "Wade", "Lo", "Dia", "Ndour", "Coulibaly", "Badji", "Mendy", "Gomis",
+            "Tall", "Samb", "Mbodj", "Diagne", "Kébé", "Ly", "Barry", "Traoré", "Sané", "Diatta");
+
+    public static final List<String> FIRST_NAMES = List.of(
+            "Mamadou", "Aminata", "Moussa", "Fatou", "Ibrahima", "Awa", "Cheikh", "Mariama", "Ousmane",
+            "Khady", "Abdoulaye", "Astou", "Modou", "Ndeye", "Babacar", "Coumba", "Pape", "Adja",
+            "Aliou", "Bineta", "Seydou", "Rokhaya", "Lamine", "Dieynaba", "Omar", "Yacine", "Malick",
+            "Sokhna", "Amadou", "Maimouna", "El Hadji", "Penda", "Souleymane", "Aïssatou", "Boubacar",
+            "Oumou", "Alioune", "Marème", "Assane", "Ramatoulaye");
+
+    public static final List<String> LOCATIONS = List.of(
+            "Marché central", "Gare routière", "Université", "Aéroport", "Taxi", "Bus", "Plage",
+            "Hôpital régional", "Mairie", "Stade", "Station-service", "Banque", "Mosquée", "Car rapide",
+            "Supermarché", "Préfecture");
+
+    private static final DocumentType[] DOCUMENT_TYPES = {
+            DocumentType.CARTE_IDENTITE, DocumentType.PERMIS_CONDUIRE, DocumentType.PASSEPORT,
+            DocumentType.CARTE_GRISE, DocumentType.DIPLOME, DocumentType.CERTIFICAT_NAISSANCE,
+            DocumentType.AUTRE, DocumentType.CARTE_VITALE, DocumentType.CERTIFICAT_MARIAGE,
+            DocumentType.LIVRET_FAMILLE };
+    private static final double[] DOCUMENT_TYPE_WEIGHTS = { 40, 12, 10, 8, 8, 8, 5, 4, 3, 2 };
+
+    private static final double ZIPF_EXPONENT = 1.07;
+    // Probabilité qu'un fil s'arrête après chaque message : 1 / 0.35 ≈ 3 messages en moyenne
+    private static final double CONVERSATION_STOP_PROBABILITY = 0.35;
+    private static final int MAX_CONVERSATION_LENGTH = 40;
+
+    private static final Sampler CITY_SAMPLER = Sampler.zipf(CITIES.size(), ZIPF_EXPONENT);
+    private static final Sampler LAST_NAME_SAMPLER = Sampler.zipf(LAST_NAMES.size(), ZIPF_EXPONENT);
+    private static final Sampler DOCUMENT_TYPE_SAMPLER = new Sampler(DOCUMENT_TYPE_WEIGHTS);
+
+    private SeedDistributions() {
+    }
+
+    public static String email(long userIndex) {
+        return "user" + userIndex + "@" + EMAIL_DOMAIN;
+    }
+
+    // Unique par index : le téléphone est une colonne unique
+    public static String phone(long userIndex) {
+        return String.format("2217%08d", userIndex);
+    }
+
+    public static City city(SplittableRandom random) {
+        return CITIES.get(CITY_SAMPLER.sample(random));
+    }
+
+    public static String lastName(SplittableRandom random) {
+        return LAST_NAMES.get(LAST_NAME_SAMPLER.sample(random));
+    }
+
+    public static String firstName(SplittableRandom random) {
+        return FIRST_NAMES.get(random.nextInt(FIRST_NAMES.size()));
+    }
+
+    public static String location(SplittableRandom random) {
+        return LOCATIONS.get(random.nextInt(LOCATIONS.size()));
+    }
+
+    public static DocumentType documentType(SplittableRandom random) {
+        return DOCUMENT_TYPES[DOCUMENT_TYPE_SAMPLER.sample(random)];
+    }
+
+    public static int conversationLength(SplittableRandom random) {
+        double draw = 1.0 - random.nextDouble();
+        int length = 1 + (int) (Math.log(draw) / Math.log(1.0 - CONVERSATION_STOP_PROBABILITY));
+        return Math.min(length, MAX_CONVERSATION_LENGTH);
+    }
+
+    /**
+     * Tirage d'un indice selon des poids donnés (recherche dichotomique dans
+     * les poids cumulés).
+     */
+    private static final class Sampler {
+
+        private final double[] cumulative;
+
+        Sampler(double[] weights) {
+            cumulative = new double[weights.length];
+            double total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulative[i] = total;
+            }
+            for (int i = 0; i < cumulative.length; i++) {
+                cumulative[i] /= total;
+            }
+        }
+
+        static Sampler zipf(int size, double exponent) {
+            double[] weights = new double[size];
+            for (int rank = 1; rank <= size; rank++) {
+                weights[rank - 1] = 1.0 / Math.pow(rank, exponent);
+            }
+            return new Sampler(weights);
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            int position = index >= 0 ? index : -index - 1;
+            return Math.min(position, cumulative.length - 1);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.documents.lostdocumentsapp.util;
+
+/**
+ * Distance d'édition bornée entre deux chaînes déjà normalisées.
+ */
+public final class StringDistance {
+
+    private StringDistance() {
+    }
+
+    /**
+     * Distance de Levenshtein si elle vaut au plus {@code max}, sinon
+     * {@code max + 1}. Seule la bande diagonale de largeur {@code 2 * max + 1}
+     * est calculée.
+     */
+    public static int levenshtein(CharSequence a, CharSequence b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        if (n == 0 || m == 0) {
+            return Math.max(n, m);
+        }
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= max ? j : max + 1;
+        }
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(m, i + max);
+            current[0] = i <= max ? i : max + 1;
+            if (from > 1) {
+                current[from - 1] = max + 1;
+            }
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                current[j] = Math.min(value, max + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < m) {
+                current[to + 1] = max + 1;
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[m], max + 1);
+    }
+
+    /**
+     * Similarité entre 0 et 1 : {@code 1 - distance / longueur max}, nulle
+     * au-delà de {@code maxDistance} modifications.
+     */
+    public static double similarity(String a, String b, int maxDistance) {
+        int length = Math.max(a.length(), b.length());
+        if (length == 0) {
+            return 0.0;
+        }
+        int distance = levenshtein(a, b, maxDistance);
+        return distance > maxDistance ? 0.0 : 1.0 - (double) distance / length;
+    }
+}
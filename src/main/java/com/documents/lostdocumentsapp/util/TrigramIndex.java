@@ -0,0 +1,237 @@
+package com.documents.lostdocumentsapp.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Recherche de sous-chaîne par trigrammes, équivalente à
+ * {@code LOWER(col1) LIKE '%x%' OR LOWER(col2) LIKE '%x%' ...}.
+ *
+ * <p>
+ * Les colonnes d'un identifiant sont repliées ({@link TextNormalizer#fold})
+ * et conservées, séparées pour qu'aucune correspondance ne les chevauche.
+ * Chaque trigramme renvoie vers la liste triée des identifiants qui le
+ * contiennent ({@code int[]}). Une recherche intersecte les listes de ses
+ * trigrammes, de la plus courte à la plus longue, puis vérifie la sous-chaîne
+ * sur le texte conservé des seuls candidats restants. Les identifiants
+ * croissants des insertions s'ajoutent en fin de liste ; une modification
+ * d'un ancien identifiant décale la liste.
+ */
+public final class TrigramIndex {
+
+    private static final char SEPARATOR = '\u001f';
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, SortedIntList> postings = new HashMap<>();
+    private final Map<Integer, String> texts = new HashMap<>();
+
+    /**
+     * Page de résultats, du plus grand identifiant au plus petit.
+     */
+    public record Result(List<Long> ids, boolean hasNext) {
+    }
+
+    /**
+     * Remplace les colonnes indexées pour {@code id}.
+     */
+    public void put(long id, String... fields) {
+        int key = toKey(id);
+        String text = join(fields);
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            texts.put(key, text);
+            for (long gram : trigrams(text)) {
+                postings.computeIfAbsent(gram, g -> new SortedIntList()).add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexe {@code id} seulement s'il ne l'est pas déjà ; utilisé au
+     * chargement, où les écritures concurrentes sont plus récentes.
+     */
+    public boolean putIfAbsent(long id, String... fields) {
+        lock.writeLock().lock();
+        try {
+            if (texts.containsKey(toKey(id))) {
+                return false;
+            }
+            put(id, fields);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(toKey(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return texts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Identifiants dont une colonne contient {@code term}, en sautant les
+     * {@code offset} premiers. Renvoie {@code null} si le terme fait moins de
+     * trois caractères : il n'a pas de trigramme.
+     */
+    public Result search(String term, long offset, int limit) {
+        String folded = TextNormalizer.fold(term).trim();
+        if (folded.length() < 3) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int[] candidates = intersect(folded);
+            List<Long> ids = new ArrayList<>(limit);
+            long skipped = 0;
+            for (int i = candidates.length - 1; i >= 0; i--) {
+                if (!texts.get(candidates[i]).contains(folded)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else if (ids.size() < limit) {
+                    ids.add((long) candidates[i]);
+                } else {
+                    return new Result(ids, true);
+                }
+            }
+            return new Result(ids, false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] intersect(String term) {
+        long[] grams = trigrams(term);
+        SortedIntList[] lists = new SortedIntList[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        int[] candidates = Arrays.copyOf(lists[0].values, lists[0].size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            int kept = 0;
+            for (int j = 0; j < count; j++) {
+                if (lists[i].contains(candidates[j])) {
+                    candidates[kept++] = candidates[j];
+                }
+            }
+            count = kept;
+        }
+        return count == candidates.length ? candidates : Arrays.copyOf(candidates, count);
+    }
+
+    private void removeLocked(int key) {
+        String previous = texts.remove(key);
+        if (previous == null) {
+            return;
+        }
+        for (long gram : trigrams(previous)) {
+            SortedIntList list = postings.get(gram);
+            if (list != null) {
+                list.remove(key);
+                if (list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    // Trigrammes distincts ne chevauchant pas deux colonnes
+    private static long[] trigrams(String text) {
+        long[] grams = new long[Math.max(0, text.length() - 2)];
+        int count = 0;
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            char a = text.charAt(i);
+            char b = text.charAt(i + 1);
+            char c = text.charAt(i + 2);
+            if (a != SEPARATOR && b != SEPARATOR && c != SEPARATOR) {
+                grams[count++] = ((long) a << 32) | ((long) b << 16) | c;
+            }
+        }
+        return Arrays.stream(grams, 0, count).distinct().toArray();
+    }
+
+    private static String join(String... fields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            if (!text.isEmpty()) {
+                text.append(SEPARATOR);
+            }
+            text.append(TextNormalizer.fold(field));
+        }
+        return text.toString();
+    }
+
+    // Les listes tiennent sur des int : les identifiants doivent rester en deçà de 2^31
+    private static int toKey(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Identifiant hors plage pour l'index trigramme : " + id);
+        }
+        return (int) id;
+    }
+
+    private static final class SortedIntList {
+
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size > 0 && values[size - 1] >= value) {
+                int position = Arrays.binarySearch(values, 0, size, value);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, value);
+                return;
+            }
+            insertAt(size, value);
+        }
+
+        void remove(int value) {
+            int position = Arrays.binarySearch(values, 0, size, value);
+            if (position >= 0) {
+                System.arraycopy(values, position + 1, values, position, size - position - 1);
+                size--;
+            }
+        }
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        private void insertAt(int position, int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, position, values, position + 1, size - position);
+            values[position] = value;
+            size++;
+        }
+    }
+}
@@ -69,12 +69,15 @@ CREATE TABLE annonces (
     contact_email VARCHAR(100),
     image_url VARCHAR(255),
     views INT DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
     document_type ENUM('CARTE_IDENTITE', 'PASSEPORT', 'CARTE_GRISE', 'PERMIS_CONDUIRE',
                       'DIPLOME', 'CERTIFICAT_NAISSANCE', 'CERTIFICAT_MARIAGE',
                       'LIVRET_FAMILLE', 'CARTE_VITALE', 'AUTRE') NOT NULL,
     document_number VARCHAR(100) NOT NULL,
     holder_name VARCHAR(100) NOT NULL,
     holder_first_name VARCHAR(100),
+    holder_search VARCHAR(201),
+    city_search VARCHAR(100),
     expires_at TIMESTAMP,
     resolved_at TIMESTAMP NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -91,7 +94,8 @@ CREATE TABLE annonces (
     INDEX idx_title (title),
     INDEX idx_document_type (document_type),
     INDEX idx_holder_name (holder_name),
-    INDEX idx_document_number (document_number)
+    INDEX idx_document_number (document_number),
+    INDEX idx_status_created_at_id (status, created_at, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 CREATE TABLE messages (
@@ -104,6 +108,8 @@ CREATE TABLE messages (
     message_type VARCHAR(20) DEFAULT 'CONTACT',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    participant_low BIGINT,
+    participant_high BIGINT,
     FOREIGN KEY (sender_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (receiver_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (announcement_id) REFERENCES annonces(id) ON DELETE CASCADE,
@@ -112,7 +118,43 @@ CREATE TABLE messages (
     INDEX idx_announcement_id (announcement_id),
     INDEX idx_is_read (is_read),
     INDEX idx_created_at (created_at),
-    INDEX idx_message_type (message_type)
+    INDEX idx_message_type (message_type),
+    INDEX idx_participants_created_at (participant_low, participant_high, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE conversations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    owner_id BIGINT NOT NULL,
+    partner_id BIGINT NOT NULL,
+    announcement_id BIGINT NOT NULL,
+    last_message_id BIGINT,
+    last_message_at TIMESTAMP NULL,
+    last_message_preview VARCHAR(200),
+    unread_count INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (partner_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_conversation_owner_partner_announcement (owner_id, partner_id, announcement_id),
+    INDEX idx_conversation_owner_last_message (owner_id, last_message_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE email_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient VARCHAR(320) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP NULL,
+    INDEX idx_email_outbox_status_next_attempt (status, next_attempt_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE job_leases (
+    name VARCHAR(100) PRIMARY KEY,
+    owner VARCHAR(200),
+    lease_until TIMESTAMP NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 SELECT 'Tables créées avec succès !' as message;
@@ -0,0 +1,75 @@
+package com.documents.lostdocumentsapp.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DebugSamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger sampled = context.getLogger("org.hibernate.SQL");
+    private final Logger other = context.getLogger("com.documents.lostdocumentsapp.service.AnnonceService");
+
+    private DebugSamplingTurboFilter filter;
+
+    @BeforeEach
+    void createFilter() {
+        filter = new DebugSamplingTurboFilter();
+        filter.setLoggers(" org.hibernate.SQL , ,com.documents.lostdocumentsapp.security");
+        filter.setRate(10);
+    }
+
+    @Test
+    void keepsAboutOneDebugEventInRate() {
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.decide(null, sampled, Level.DEBUG, "select ...", null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        assertThat(kept).isBetween(800, 1200);
+    }
+
+    @Test
+    void traceEventsAreSampledToo() {
+        long denied = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (filter.decide(null, sampled, Level.TRACE, "binding ...", null, null) == FilterReply.DENY) {
+                denied++;
+            }
+        }
+
+        assertThat(denied).isPositive();
+    }
+
+    @Test
+    void leavesOtherLevelsAndLoggersAlone() {
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.decide(null, sampled, Level.INFO, "message", null, null)).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(filter.decide(null, sampled, Level.WARN, "message", null, null)).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(filter.decide(null, other, Level.DEBUG, "message", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    @Test
+    void isDebugEnabledChecksAreNotSampled() {
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.decide(null, sampled, Level.DEBUG, null, null, null)).isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    @Test
+    void rateOfOneOrLessKeepsEverything() {
+        filter.setRate(0);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.decide(null, sampled, Level.DEBUG, "message", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.documents.lostdocumentsapp.service;
+
+import com.documents.lostdocumentsapp.model.DocumentType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DocumentMatchingServiceTest {
+
+    // Valeur par défaut de app.matching.threshold
+    private static final double THRESHOLD = 0.65;
+
+    private static DocumentMatchingService.Profile cni(String number, String holderName, String holderFirstName) {
+        return DocumentMatchingService.Profile.of(DocumentType.CARTE_IDENTITE, number, holderName, holderFirstName);
+    }
+
+    private static double score(DocumentMatchingService.Profile a, DocumentMatchingService.Profile b) {
+        return DocumentMatchingService.score(a, b);
+    }
+
+    @Test
+    void sameNumberAndSameHolderScoresOne() {
+        assertThat(score(cni("1 675 1989 07777", "N'Diaye", "Fatou"), cni("1675198907777", "Ndiaye", "Fatou")))
+                .isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    void sameNumberAndFirstNameAloneReachesTheThreshold() {
+        assertThat(score(cni("1675198907777", "Ndiaye", "Fatou"), cni("1675198907777", "Sarr", "Fatou")))
+                .isCloseTo(THRESHOLD, within(1e-9));
+    }
+
+    @Test
+    void numberWithoutNameAgreementDoesNotMatch() {
+        assertThat(score(cni("1675198907777", "Ndiaye", "Fatou"), cni("1675198907777", "Sarr", "Moussa")))
+                .isZero();
+    }
+
+    @Test
+    void nameWithoutNumberAgreementDoesNotMatch() {
+        assertThat(score(cni("1675198907777", "Ndiaye", "Fatou"), cni("2840199312345", "Ndiaye", "Fatou")))
+                .isZero();
+        assertThat(score(cni(null, "Ndiaye", "Fatou"), cni("1675198907777", "Ndiaye", "Fatou"))).isZero();
+        // Numéro trop court pour être significatif
+        assertThat(score(cni("123", "Ndiaye", "Fatou"), cni("123", "Ndiaye", "Fatou"))).isZero();
+    }
+
+    @Test
+    void numberWithOneTypoMatchesWithFullName() {
+        double score = score(cni("1675198907777", "Ndiaye", "Fatou"), cni("1675198907717", "Ndiaye", "Fatou"));
+
+        assertThat(score).isCloseTo(0.85, within(1e-9)).isGreaterThanOrEqualTo(THRESHOLD);
+        // En dessous de six caractères, une faute ne suffit plus
+        assertThat(score(cni("12345", "Ndiaye", "Fatou"), cni("12346", "Ndiaye", "Fatou"))).isZero();
+    }
+
+    @Test
+    void phoneticVariantsOfTheNameStillMatch() {
+        double score = score(cni("1675198907777", "Coulibaly", "Mamadou"), cni("1675198907777", "Koulibaly", "Mamadu"));
+
+        assertThat(score).isGreaterThanOrEqualTo(THRESHOLD).isLessThan(1.0);
+    }
+
+    @Test
+    void differentDocumentTypesNeverMatch() {
+        DocumentMatchingService.Profile passport = DocumentMatchingService.Profile.of(DocumentType.PASSEPORT,
+                "1675198907777", "Ndiaye", "Fatou");
+
+        assertThat(score(passport, cni("1675198907777", "Ndiaye", "Fatou"))).isZero();
+    }
+}
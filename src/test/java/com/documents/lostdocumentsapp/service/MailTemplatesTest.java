@@ -0,0 +1,77 @@
+package com.documents.lostdocumentsapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailTemplatesTest {
+
+    private final MailTemplates mailTemplates = new MailTemplates();
+
+    @BeforeEach
+    void compile() throws IOException {
+        mailTemplates.compileAll();
+    }
+
+    @Test
+    void substitutesVariablesAndLeavesMissingOnesEmpty() {
+        MailTemplates.Template template = MailTemplates.Template.compile("test",
+                "Bonjour {{ firstName }} {{lastName}}{{suffix}} !");
+        StringBuilder out = new StringBuilder();
+
+        template.renderTo(out, Map.of("firstName", "Awa", "lastName", "Diop"));
+
+        assertThat(out).hasToString("Bonjour Awa Diop !");
+    }
+
+    @Test
+    void keepsTextWithoutVariablesAsIs() {
+        StringBuilder out = new StringBuilder();
+
+        MailTemplates.Template.compile("test", "Aucune variable }} ici").renderTo(out, Map.of());
+
+        assertThat(out).hasToString("Aucune variable }} ici");
+    }
+
+    @Test
+    void rejectsUnclosedVariables() {
+        assertThatThrownBy(() -> MailTemplates.Template.compile("test", "Bonjour {{firstName"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("position 8");
+    }
+
+    @Test
+    void rendersClasspathTemplates() {
+        String body = mailTemplates.render("welcome", Map.of("firstName", "Awa", "lastName", "Diop"));
+
+        assertThat(body).startsWith("Bonjour Awa Diop,").doesNotContain("{{");
+    }
+
+    @Test
+    void everyClasspathTemplateIsCompiled() {
+        for (String name : new String[] {"annonce-created", "annonce-matched", "annonce-resolved",
+                "document-matched", "new-message", "welcome"}) {
+            assertThat(mailTemplates.render(name, Map.of())).as(name).isNotEmpty().doesNotContain("{{");
+        }
+    }
+
+    @Test
+    void rejectsUnknownTemplates() {
+        assertThatThrownBy(() -> mailTemplates.render("missing", Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void largeRenderingDoesNotLeakIntoTheNextOne() {
+        mailTemplates.render("new-message", Map.of("content", "x".repeat(64 * 1024)));
+
+        String body = mailTemplates.render("welcome", Map.of("firstName", "Awa", "lastName", "Diop"));
+
+        assertThat(body).startsWith("Bonjour Awa Diop,").doesNotContain("xxx");
+    }
+}
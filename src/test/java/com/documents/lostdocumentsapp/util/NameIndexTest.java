@@ -0,0 +1,75 @@
+package com.documents.lostdocumentsapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NameIndexTest {
+
+    @Test
+    void ranksExactThenPhoneticThenPrefixThenEdits() {
+        NameIndex index = new NameIndex();
+        index.put(14, Set.of("kaulibaky"));
+        index.put(12, Set.of("koulibalyo"));
+        index.put(11, Set.of("coulibaly"));
+        index.put(10, Set.of("koulibaly"));
+        index.put(13, Set.of("kulibali"));
+        index.put(15, Set.of("diallo"));
+
+        // Égalité de note (11 et 13 phonétiques) : identifiant décroissant
+        assertThat(index.search("Koulibaly", 100)).containsExactly(10L, 13L, 11L, 12L, 14L);
+    }
+
+    @Test
+    void everyWordMustMatchAndScoresAddUp() {
+        NameIndex index = new NameIndex();
+        index.put(1, Set.of("ndiaye", "fatou"));
+        index.put(2, Set.of("ndiaye", "moussa"));
+        index.put(3, Set.of("diop", "fatou"));
+        index.put(4, Set.of("ndiaye", "fatoumata"));
+
+        assertThat(index.search("Fatou N'Diaye", 100)).containsExactly(1L, 4L);
+        assertThat(index.search("ndiaye", 100)).containsExactly(4L, 2L, 1L);
+        assertThat(index.search("diop moussa", 100)).isEmpty();
+    }
+
+    @Test
+    void shortWordsAreNotMatchedWithEdits() {
+        NameIndex index = new NameIndex();
+        index.put(1, Set.of("diop"));
+
+        assertThat(index.search("diap", 100)).isEmpty();
+        assertThat(index.search("dio", 100)).containsExactly(1L);
+    }
+
+    @Test
+    void tooBroadOrEmptyQueryReturnsNull() {
+        NameIndex index = new NameIndex();
+        index.put(1, Set.of("sow"));
+        index.put(2, Set.of("sow"));
+        index.put(3, Set.of("sow"));
+
+        assertThat(index.search("sow", 2)).isNull();
+        assertThat(index.search("sow", 3)).containsExactly(3L, 2L, 1L);
+        assertThat(index.search(" - ", 100)).isNull();
+    }
+
+    @Test
+    void putReplacesAndRemoveForgetsTheWords() {
+        NameIndex index = new NameIndex();
+        index.put(1, Set.of("diallo"));
+        index.put(1, Set.of("diop"));
+
+        assertThat(index.search("diallo", 100)).isEmpty();
+        assertThat(index.search("diop", 100)).isEqualTo(List.of(1L));
+        assertThat(index.putIfAbsent(1, Set.of("fall"))).isFalse();
+        assertThat(index.search("fall", 100)).isEmpty();
+
+        index.remove(1);
+        assertThat(index.search("diop", 100)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
@@ -0,0 +1,34 @@
+package com.documents.lostdocumentsapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhoneticEncoderTest {
+
+    @Test
+    void apostropheAndCaseDoNotChangeTheCode() {
+        assertThat(PhoneticEncoder.encode("N'Diaye")).isEqualTo(PhoneticEncoder.encode("Ndiaye"));
+        assertThat(PhoneticEncoder.encode("NDIAYE")).isEqualTo(PhoneticEncoder.encode("ndiaye"));
+    }
+
+    @Test
+    void equivalentSpellingsShareTheCode() {
+        assertThat(PhoneticEncoder.encode("Coulibaly")).isEqualTo(PhoneticEncoder.encode("Koulibaly"));
+        assertThat(PhoneticEncoder.encode("Mamadou")).isEqualTo(PhoneticEncoder.encode("Mamadu"));
+        assertThat(PhoneticEncoder.encode("Seydou")).isEqualTo(PhoneticEncoder.encode("Saïdou"));
+        assertThat(PhoneticEncoder.encode("Cheikh")).isEqualTo(PhoneticEncoder.encode("Sheikh"));
+    }
+
+    @Test
+    void distinctNamesKeepDistinctCodes() {
+        assertThat(PhoneticEncoder.encode("Diallo")).isNotEqualTo(PhoneticEncoder.encode("Diop"));
+        assertThat(PhoneticEncoder.encode("Sow")).isNotEqualTo(PhoneticEncoder.encode("Sy"));
+    }
+
+    @Test
+    void emptyInputHasEmptyCode() {
+        assertThat(PhoneticEncoder.encode(null)).isEmpty();
+        assertThat(PhoneticEncoder.encode(" ' ")).isEmpty();
+    }
+}
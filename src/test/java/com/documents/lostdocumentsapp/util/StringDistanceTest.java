@@ -0,0 +1,40 @@
+package com.documents.lostdocumentsapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class StringDistanceTest {
+
+    @Test
+    void distanceWithinTheBoundIsExact() {
+        assertThat(StringDistance.levenshtein("diallo", "diallo", 2)).isZero();
+        assertThat(StringDistance.levenshtein("diallo", "dialo", 1)).isEqualTo(1);
+        assertThat(StringDistance.levenshtein("kitten", "sitting", 3)).isEqualTo(3);
+        assertThat(StringDistance.levenshtein("", "sow", 3)).isEqualTo(3);
+    }
+
+    @Test
+    void distanceBeyondTheBoundIsCutOffAtMaxPlusOne() {
+        assertThat(StringDistance.levenshtein("kitten", "sitting", 2)).isEqualTo(3);
+        assertThat(StringDistance.levenshtein("ndiaye", "diop", 1)).isEqualTo(2);
+        // Écart de longueur supérieur à la borne : aucun calcul
+        assertThat(StringDistance.levenshtein("sy", "sylla", 2)).isEqualTo(3);
+        assertThat(StringDistance.levenshtein("", "ndiaye", 3)).isEqualTo(4);
+    }
+
+    @Test
+    void boundOfZeroOnlyAcceptsEqualStrings() {
+        assertThat(StringDistance.levenshtein("fall", "fall", 0)).isZero();
+        assertThat(StringDistance.levenshtein("fall", "fail", 0)).isEqualTo(1);
+    }
+
+    @Test
+    void similarityIsZeroBeyondTheBound() {
+        assertThat(StringDistance.similarity("diallo", "dialo", 1)).isCloseTo(1.0 - 1.0 / 6, within(1e-9));
+        assertThat(StringDistance.similarity("diallo", "diallo", 0)).isEqualTo(1.0);
+        assertThat(StringDistance.similarity("kitten", "sitting", 2)).isZero();
+        assertThat(StringDistance.similarity("", "", 2)).isZero();
+    }
+}
@@ -0,0 +1,93 @@
+package com.documents.lostdocumentsapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrigramIndexTest {
+
+    @Test
+    void matchesSubstringsOfAnyFieldIgnoringCaseAndAccents() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Ndèye Fall", "Thiès");
+        index.put(2, "Moussa Diop", "Dakar");
+        index.put(3, "Awa Diallo", "Saint-Louis");
+
+        assertThat(index.search("THIES", 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search("ndeye", 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search("t-lou", 0, 10).ids()).containsExactly(3L);
+        assertThat(index.search("dia", 0, 10).ids()).containsExactly(3L);
+        assertThat(index.search("rufisque", 0, 10).ids()).isEmpty();
+    }
+
+    @Test
+    void candidatesAreVerifiedAfterPostingIntersection() {
+        TrigramIndex index = new TrigramIndex();
+        // Tous les trigrammes de "diallo" sont présents, mais pas la sous-chaîne
+        index.put(1, "dial diallx allo");
+        index.put(2, "diallo");
+
+        assertThat(index.search("diallo", 0, 10).ids()).containsExactly(2L);
+    }
+
+    @Test
+    void matchesDoNotSpanTwoFields() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "fa", "ll");
+
+        assertThat(index.search("fall", 0, 10).ids()).isEmpty();
+    }
+
+    @Test
+    void pagesFromTheLargestIdentifier() {
+        TrigramIndex index = new TrigramIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, "Dakar");
+        }
+
+        TrigramIndex.Result first = index.search("dakar", 0, 2);
+        assertThat(first.ids()).containsExactly(5L, 4L);
+        assertThat(first.hasNext()).isTrue();
+
+        TrigramIndex.Result last = index.search("dakar", 4, 2);
+        assertThat(last.ids()).containsExactly(1L);
+        assertThat(last.hasNext()).isFalse();
+
+        TrigramIndex.Result exact = index.search("dakar", 3, 2);
+        assertThat(exact.ids()).containsExactly(2L, 1L);
+        assertThat(exact.hasNext()).isFalse();
+    }
+
+    @Test
+    void termsShorterThanATrigramReturnNull() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Sy");
+
+        assertThat(index.search("sy", 0, 10)).isNull();
+        assertThat(index.search("  ", 0, 10)).isNull();
+    }
+
+    @Test
+    void putReplacesAndRemoveForgetsTheText() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(7, "Kaolack");
+        index.put(3, "Kaolack");
+        index.put(7, "Ziguinchor");
+
+        assertThat(index.search("kaolack", 0, 10).ids()).containsExactly(3L);
+        assertThat(index.search("ziguinchor", 0, 10).ids()).containsExactly(7L);
+        assertThat(index.putIfAbsent(7, "Kaolack")).isFalse();
+
+        index.remove(7);
+        assertThat(index.search("ziguinchor", 0, 10).ids()).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsIdentifiersOutsideIntRange() {
+        TrigramIndex index = new TrigramIndex();
+
+        assertThatThrownBy(() -> index.put(1L << 31, "Dakar")).isInstanceOf(IllegalArgumentException.class);
+    }
+}